@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "ai")
 @Getter
@@ -17,6 +19,35 @@ public class AiConfig {
     private String baseUrl = "https://api.openai.com/v1";
     private int maxTokens = 2000;
     private double temperature = 0.7;
+    // upper bound of the adaptive limit on LLM calls waiting for the model, calls over it are refused right away
+    private int maxConcurrentCalls = 10;
+    // streamed chat answers run on virtual threads, so they are capped separately and much higher
+    private int maxConcurrentStreams = 1000;
+    // whole-call deadlines per kind of request; a streamed answer is bounded by the read timeout between chunks
+    private Duration chatTimeout = Duration.ofSeconds(60);
+    private Duration questionTimeout = Duration.ofSeconds(20);
+    private Duration analysisTimeout = Duration.ofSeconds(90);
+    private Limiter limiter = new Limiter();
+    private Breaker breaker = new Breaker();
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private int minLimit = 1;
+        // a successful call that used more than this share of its task's deadline shrinks the limit like a failure
+        private double slowCallRatio = 0.5;
+        private double backoffRatio = 0.75;
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 2;
+    }
 
     public boolean isAnthropic() {
         return "anthropic".equalsIgnoreCase(provider);
@@ -2,6 +2,7 @@ package com.oquga.oquga.config;
 
 import javax.sql.DataSource;
 import org.flywaydb.core.Flyway;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,4 +17,15 @@ public class FlywayConfig {
                 .baselineOnMigrate(true)
                 .load();
     }
+
+    /**
+     * Hibernate validates sequence increments against the schema, so migrations must run before it starts.
+     */
+    @Configuration
+    static class FlywayEntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+
+        FlywayEntityManagerFactoryDependsOn() {
+            super("flyway");
+        }
+    }
 }
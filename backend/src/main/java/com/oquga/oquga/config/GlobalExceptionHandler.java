@@ -1,10 +1,13 @@
 package com.oquga.oquga.config;
 
+import com.oquga.oquga.exception.UniversityConflictException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -25,6 +28,24 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(UniversityConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleUniversityConflict(UniversityConflictException ex) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+        response.getBody().put("currentVersion", ex.getCurrentVersion());
+        response.getBody().put("conflicts", ex.getConflicts());
+        return response;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "University was modified by someone else, reload it and reapply your changes");
+    }
+
+    @ExceptionHandler(MissingRequestHeaderException.class)
+    public ResponseEntity<Map<String, Object>> handleMissingRequestHeader(MissingRequestHeaderException ex) {
+        return buildResponse(HttpStatus.PRECONDITION_REQUIRED, ex.getMessage());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Map<String, Object>> handleAccessDeniedException(AccessDeniedException ex) {
         return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage());
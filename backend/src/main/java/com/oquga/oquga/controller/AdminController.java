@@ -4,6 +4,7 @@ import com.oquga.oquga.dto.admin.req.UniversityAdminCreateRequest;
 import com.oquga.oquga.dto.admin.res.UniversityAdminListResponse;
 import com.oquga.oquga.service.AdminService;
 import com.oquga.oquga.service.AuthenticationService;
+import com.oquga.oquga.service.UniversityImageService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/admin")
 @RequiredArgsConstructor
@@ -23,6 +26,7 @@ public class AdminController {
 
     private final AuthenticationService authService;
     private final AdminService adminService;
+    private final UniversityImageService universityImageService;
 
     @PostMapping("/university-admins")
     @PreAuthorize("hasAuthority('ROLE_MAIN_ADMIN')")
@@ -42,4 +46,10 @@ public class AdminController {
     ) {
         return ResponseEntity.ok(adminService.getUniversityAdmins(search, page, limit));
     }
+
+    @PostMapping("/university-photos/variants/backfill")
+    @PreAuthorize("hasAuthority('ROLE_MAIN_ADMIN')")
+    public ResponseEntity<Map<String, Integer>> backfillPhotoVariants() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("queued", universityImageService.backfill()));
+    }
 }
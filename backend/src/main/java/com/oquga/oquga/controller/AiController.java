@@ -5,6 +5,7 @@ import com.oquga.oquga.dto.ai.res.ChatResponse;
 import com.oquga.oquga.service.AiService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,14 +14,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/ai")
 @RequiredArgsConstructor
 public class AiController {
 
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(5);
+
     private final AiService aiService;
 
     @PostMapping("/chat")
@@ -28,6 +35,43 @@ public class AiController {
         return ResponseEntity.ok(aiService.chat(request));
     }
 
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChat(@RequestBody @Valid ChatRequest request) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        Runnable cancel = aiService.streamChat(request, new AiService.ChatStreamListener() {
+            @Override
+            public void onDelta(String content) throws IOException {
+                emitter.send(SseEmitter.event().name("delta").data(Map.of("content", content)));
+            }
+
+            @Override
+            public void onComplete(ChatResponse response) {
+                try {
+                    emitter.send(SseEmitter.event().name("done").data(response));
+                    emitter.complete();
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                try {
+                    emitter.send(SseEmitter.event().name("error")
+                            .data(Map.of("message", "Извини, я сейчас немного перегружен. Попробуй позже.")));
+                    emitter.complete();
+                } catch (IOException sendFailure) {
+                    emitter.completeWithError(sendFailure);
+                }
+            }
+        });
+        // the request thread is released right away; a disconnect, timeout or error ends the upstream call
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        return emitter;
+    }
+
     @PostMapping("/career-test/start")
     public ResponseEntity<ChatResponse> startCareerTest() {
         String sessionId = java.util.UUID.randomUUID().toString();
@@ -1,22 +1,41 @@
 package com.oquga.oquga.controller;
 
+import com.oquga.oquga.dto.university.req.ConfirmPhotoUploadRequest;
 import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.PhotoUploadUrlRequest;
+import com.oquga.oquga.dto.university.req.UpdateBasicInfoRequest;
 import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.PhotoUploadUrlResponse;
+import com.oquga.oquga.dto.university.res.PublishResponse;
+import com.oquga.oquga.dto.university.res.SuggestionResponse;
+import com.oquga.oquga.dto.university.res.UniversityBasicInfoResponse;
 import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
 import com.oquga.oquga.dto.university.res.UniversityListResponse;
 import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.dto.university.res.UniversitySectionResponse;
+import com.oquga.oquga.enums.UniversitySort;
+import com.oquga.oquga.service.CatalogCacheService;
+import com.oquga.oquga.service.SuggestionService;
+import com.oquga.oquga.service.UniversityDetailCacheService;
 import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.UniversitySnapshotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/universities")
@@ -24,25 +43,96 @@ import java.util.Map;
 public class UniversityController {
 
     private final UniversityService universityService;
+    private final SuggestionService suggestionService;
+    private final UniversityDetailCacheService universityDetailCacheService;
+    private final CatalogCacheService catalogCacheService;
+    private final UniversitySnapshotService universitySnapshotService;
+
+    @Value("${application.http.public-max-age:60s}")
+    private Duration publicMaxAge;
 
     @GetMapping
     public ResponseEntity<UniversityListResponse> getUniversities(
             @RequestParam(defaultValue = "") String search,
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "NEWEST") UniversitySort sort,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String fallback,
+            WebRequest webRequest
+    ) {
+        List<String> languages = languagePreference(lang, fallback);
+        if (cursor != null && (!search.isBlank() || sort != UniversitySort.NEWEST)) {
+            throw new IllegalArgumentException("Cursor pagination is only supported for the newest-first catalog without search");
+        }
+        // the body is cached under the same version the ETag names
+        long version = universityService.getCatalogVersion();
+        String etag = "\"c" + version + "\"";
+        if (cursor != null) {
+            String key = "after:" + cursor + "|" + limit + "|" + includeTotal + "|" + languages;
+            return conditionalGet(webRequest, etag, publicCacheControl(), () -> catalogCacheService.getCatalogEntry(
+                    version, key, UniversityListResponse.class,
+                    () -> universityService.getUniversitiesAfter(cursor, limit, includeTotal, languages)));
+        }
+        String key = "list:" + search + "|" + page + "|" + limit + "|" + sort + "|" + fuzzy + "|" + languages;
+        return conditionalGet(webRequest, etag, publicCacheControl(), () -> catalogCacheService.getCatalogEntry(
+                version, key, UniversityListResponse.class,
+                () -> universityService.getUniversities(search, page, limit, sort, fuzzy, languages)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String lang,
             @RequestParam(defaultValue = "10") int limit
     ) {
-        return ResponseEntity.ok(universityService.getUniversities(search, page, limit));
+        return ResponseEntity.ok(suggestionService.suggest(q, lang, limit));
+    }
+
+    @GetMapping("/by-slug/{slug}")
+    public ResponseEntity<String> getPublishedUniversity(
+            @PathVariable String slug,
+            @RequestParam(defaultValue = "ru") String lang
+    ) {
+        return ResponseEntity.ok()
+                .cacheControl(publicCacheControl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(universitySnapshotService.getPublishedProfile(slug, lang));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UniversityResponse> getUniversity(@PathVariable Long id) {
-        return ResponseEntity.ok(universityService.getUniversityById(id));
+    public ResponseEntity<UniversityResponse> getUniversity(
+            @PathVariable Long id,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String fallback,
+            WebRequest webRequest
+    ) {
+        List<String> languages = languagePreference(lang, fallback);
+        return universityService.getUniversityVersion(id)
+                .map(version -> conditionalGet(webRequest, "\"u" + version + "\"", publicCacheControl(),
+                        () -> catalogCacheService.getUniversityEntry(
+                                id, version, "summary:" + languages, UniversityResponse.class,
+                                () -> universityService.getUniversityById(id, languages))))
+                .orElseThrow(() -> new RuntimeException("University not found with id: " + id));
     }
 
     @GetMapping("/{id}/detail")
     @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
-    public ResponseEntity<UniversityDetailResponse> getUniversityDetail(@PathVariable Long id) {
-        return ResponseEntity.ok(universityService.getUniversityDetail(id));
+    public ResponseEntity<byte[]> getUniversityDetail(
+            @PathVariable Long id,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String fallback,
+            WebRequest webRequest
+    ) {
+        List<String> languages = languagePreference(lang, fallback);
+        // admin view: never stored by shared caches, but the browser may revalidate it with If-None-Match
+        return universityService.getUniversityDetailVersion(id)
+                .map(version -> conditionalGet(webRequest, "\"d" + version + "\"", CacheControl.noCache().cachePrivate(),
+                        () -> universityDetailCacheService.getDetailJson(id, version, languages)))
+                .orElseThrow(() -> new RuntimeException("University not found with id: " + id));
     }
 
     @PostMapping
@@ -54,14 +144,24 @@ public class UniversityController {
                 .body(universityService.createUniversity(request));
     }
 
-    @PostMapping(value = "/{id}/photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PostMapping("/{id}/photo/upload-url")
     @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
-    public ResponseEntity<Map<String, String>> uploadPhoto(
+    public ResponseEntity<PhotoUploadUrlResponse> createPhotoUploadUrl(
             @PathVariable Long id,
-            @RequestParam("file") MultipartFile file,
+            @RequestBody @Valid PhotoUploadUrlRequest request,
             Authentication authentication
     ) {
-        String photoUrl = universityService.uploadPhoto(id, file, authentication.getName());
+        return ResponseEntity.ok(universityService.createPhotoUploadUrl(id, request, authentication.getName()));
+    }
+
+    @PostMapping("/{id}/photo/confirm")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<Map<String, String>> confirmPhotoUpload(
+            @PathVariable Long id,
+            @RequestBody @Valid ConfirmPhotoUploadRequest request,
+            Authentication authentication
+    ) {
+        String photoUrl = universityService.confirmPhotoUpload(id, request.objectKey(), authentication.getName());
         return ResponseEntity.ok(Map.of("photoUrl", photoUrl));
     }
 
@@ -75,9 +175,171 @@ public class UniversityController {
         return ResponseEntity.ok(universityService.updateUniversity(id, request, authentication.getName()));
     }
 
+    @PatchMapping("/{id}/basic-info")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<UniversityBasicInfoResponse> updateBasicInfo(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid UpdateBasicInfoRequest request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchBasicInfo(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/translations")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<Map<String, UniversityDetailResponse.TranslationDto>> updateTranslations(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid Map<String, UpdateUniversityRequest.TranslationDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchTranslations(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/leadership")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<List<UniversityDetailResponse.LeadershipDto>> updateLeadership(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid List<UpdateUniversityRequest.LeadershipDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchLeadership(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/achievements")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<List<UniversityDetailResponse.AchievementDto>> updateAchievements(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid List<UpdateUniversityRequest.AchievementDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchAchievements(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/history-events")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<List<UniversityDetailResponse.HistoryEventDto>> updateHistoryEvents(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid List<UpdateUniversityRequest.HistoryEventDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchHistoryEvents(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/faculties/{facultyId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<UniversityDetailResponse.FacultyDto> updateFaculty(
+            @PathVariable Long id,
+            @PathVariable Long facultyId,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid UpdateUniversityRequest.FacultyDto request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchFaculty(id, facultyId, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/admission-rule")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<UniversityDetailResponse.AdmissionRuleDto> updateAdmissionRule(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid UpdateUniversityRequest.AdmissionRuleDto request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchAdmissionRule(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/tuition-discounts")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<List<UniversityDetailResponse.TuitionDiscountDto>> updateTuitionDiscounts(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid List<UpdateUniversityRequest.TuitionDiscountDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchTuitionDiscounts(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PatchMapping("/{id}/international-sections")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<List<UniversityDetailResponse.InternationalSectionDto>> updateInternationalSections(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+            @RequestBody @Valid List<UpdateUniversityRequest.InternationalSectionDto> request,
+            Authentication authentication
+    ) {
+        return sectionResponse(universityService.patchInternationalSections(id, parseVersion(ifMatch), request, authentication.getName()));
+    }
+
+    @PostMapping("/{id}/publish")
+    @PreAuthorize("hasAnyAuthority('ROLE_MAIN_ADMIN', 'ROLE_UNIVERSITY_ADMIN')")
+    public ResponseEntity<PublishResponse> publishUniversity(
+            @PathVariable Long id,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(universitySnapshotService.publish(id, authentication.getName()));
+    }
+
     @PostMapping("/{id}/view")
     public ResponseEntity<Void> incrementViewCount(@PathVariable Long id) {
         universityService.incrementViewCount(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    // section edits carry the university version they are based on in If-Match and get the new one back as ETag
+    private static <T> ResponseEntity<T> sectionResponse(UniversitySectionResponse<T> section) {
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(section.version()))
+                .body(section.data());
+    }
+
+    private static long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must carry the university version");
+        }
+    }
+
+    /**
+     * Answers 304 from the cheap version lookup alone; the body is only built when the client copy is stale.
+     * Bodies may be prebuilt JSON bytes, so the content type is always set explicitly.
+     */
+    private <T> ResponseEntity<T> conditionalGet(WebRequest webRequest, String etag, CacheControl cacheControl,
+                                                 Supplier<T> body) {
+        if (webRequest.checkNotModified(etag)) {
+            // status and ETag are already written by checkNotModified
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.get());
+    }
+
+    private CacheControl publicCacheControl() {
+        return CacheControl.maxAge(publicMaxAge).cachePublic();
+    }
+
+    /**
+     * Without lang every translation is returned; fallback is used only when lang is missing for an entity.
+     */
+    private List<String> languagePreference(String lang, String fallback) {
+        if (lang == null || lang.isBlank()) {
+            return List.of();
+        }
+        if (fallback == null || fallback.isBlank() || fallback.equals(lang)) {
+            return List.of(lang.trim());
+        }
+        return List.of(lang.trim(), fallback.trim());
+    }
+}
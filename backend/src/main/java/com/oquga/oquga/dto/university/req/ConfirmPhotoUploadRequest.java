@@ -0,0 +1,9 @@
+package com.oquga.oquga.dto.university.req;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ConfirmPhotoUploadRequest(
+        @NotBlank(message = "Object key is required")
+        String objectKey
+) {
+}
@@ -0,0 +1,14 @@
+package com.oquga.oquga.dto.university.req;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record PhotoUploadUrlRequest(
+        @NotBlank(message = "Content type is required")
+        String contentType,
+        @NotNull(message = "File size is required")
+        @Positive(message = "File must not be empty")
+        Long size
+) {
+}
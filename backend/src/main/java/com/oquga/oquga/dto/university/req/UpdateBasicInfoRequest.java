@@ -0,0 +1,14 @@
+package com.oquga.oquga.dto.university.req;
+
+import org.hibernate.validator.constraints.URL;
+
+public record UpdateBasicInfoRequest(
+        @URL(message = "Invalid website URL format")
+        String websiteUrl,
+        @URL(message = "Invalid virtual tour URL format")
+        String virtualTourUrl,
+        Integer foundedYear,
+        String contactPhone,
+        String contactEmail
+) {
+}
@@ -33,7 +33,9 @@ public record UpdateUniversityRequest(
         @Valid
         List<TuitionDiscountDto> tuitionDiscounts,
         @Valid
-        List<InternationalSectionDto> internationalSections
+        List<InternationalSectionDto> internationalSections,
+        @NotNull(message = "Version is required")
+        Long version
 ) {
     public record TranslationDto(
             String name,
@@ -0,0 +1,12 @@
+package com.oquga.oquga.dto.university.res;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PhotoUploadUrlResponse(
+        String uploadUrl,
+        Map<String, String> fields,
+        String objectKey,
+        Instant expiresAt
+) {
+}
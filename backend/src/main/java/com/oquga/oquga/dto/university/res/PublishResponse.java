@@ -0,0 +1,11 @@
+package com.oquga.oquga.dto.university.res;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PublishResponse(
+        String slug,
+        List<String> languages,
+        LocalDateTime publishedAt
+) {
+}
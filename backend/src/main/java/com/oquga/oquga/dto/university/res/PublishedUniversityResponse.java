@@ -0,0 +1,39 @@
+package com.oquga.oquga.dto.university.res;
+
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.AchievementDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.AdmissionRuleDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.FacultyDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.HistoryEventDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.InternationalSectionDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.LeadershipDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.TranslationDto;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.TuitionDiscountDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published profile as stored in a snapshot. The photo is kept next to the payload as an object key and
+ * its URL is added when the profile is served.
+ */
+public record PublishedUniversityResponse(
+        Long id,
+        String slug,
+        String websiteUrl,
+        String virtualTourUrl,
+        Integer foundedYear,
+        String contactPhone,
+        String contactEmail,
+        Map<String, TranslationDto> translations,
+        List<LeadershipDto> leadership,
+        List<AchievementDto> achievements,
+        List<HistoryEventDto> historyEvents,
+        List<FacultyDto> faculties,
+        AdmissionRuleDto admissionRule,
+        List<TuitionDiscountDto> tuitionDiscounts,
+        List<InternationalSectionDto> internationalSections,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.oquga.oquga.dto.university.res;
+
+import com.oquga.oquga.enums.SuggestionType;
+
+public record SuggestionResponse(
+        SuggestionType type,
+        String text,
+        Long universityId
+) {
+}
@@ -0,0 +1,17 @@
+package com.oquga.oquga.dto.university.res;
+
+import java.time.LocalDateTime;
+
+public record UniversityBasicInfoResponse(
+        Long id,
+        String slug,
+        String photoUrl,
+        String websiteUrl,
+        String virtualTourUrl,
+        Integer foundedYear,
+        String contactPhone,
+        String contactEmail,
+        Integer progressPercent,
+        LocalDateTime updatedAt
+) {
+}
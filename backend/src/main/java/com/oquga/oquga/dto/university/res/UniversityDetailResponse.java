@@ -25,7 +25,8 @@ public record UniversityDetailResponse(
         List<InternationalSectionDto> internationalSections,
         ProgressDto progress,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        Long version
 ) {
     public record TranslationDto(
             String name,
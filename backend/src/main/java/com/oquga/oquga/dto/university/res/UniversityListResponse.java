@@ -6,10 +6,14 @@ public record UniversityListResponse(
         List<UniversityResponse> data,
         MetaDto meta
 ) {
+    /**
+     * In cursor mode page and totalPages are null, and total is null unless requested.
+     */
     public record MetaDto(
-            long total,
-            int page,
+            Long total,
+            Integer page,
             int limit,
-            int totalPages
+            Integer totalPages,
+            String nextCursor
     ) {}
 }
@@ -7,6 +7,7 @@ public record UniversityResponse(
         Long id,
         String slug,
         String photoUrl,
+        Map<Integer, String> photoVariants,
         String websiteUrl,
         String virtualTourUrl,
         Integer foundedYear,
@@ -0,0 +1,7 @@
+package com.oquga.oquga.dto.university.res;
+
+public record UniversitySectionResponse<T>(
+        Long version,
+        T data
+) {
+}
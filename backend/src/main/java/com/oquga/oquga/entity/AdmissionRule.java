@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class AdmissionRule {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admission_rules_id_seq")
+    @SequenceGenerator(name = "admission_rules_id_seq", sequenceName = "admission_rules_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
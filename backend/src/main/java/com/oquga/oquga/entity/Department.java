@@ -17,15 +17,16 @@ import java.util.List;
 public class Department {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_id_seq")
+    @SequenceGenerator(name = "departments_id_seq", sequenceName = "departments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "faculty_id", nullable = false)
     private Faculty faculty;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
@@ -17,7 +17,8 @@ import java.util.List;
 public class EducationalProgram {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "educational_programs_id_seq")
+    @SequenceGenerator(name = "educational_programs_id_seq", sequenceName = "educational_programs_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,8 +28,8 @@ public class EducationalProgram {
     @Column(nullable = false, length = 20)
     private String code;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
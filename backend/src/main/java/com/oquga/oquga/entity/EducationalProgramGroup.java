@@ -18,7 +18,8 @@ import java.util.List;
 public class EducationalProgramGroup {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "educational_program_groups_id_seq")
+    @SequenceGenerator(name = "educational_program_groups_id_seq", sequenceName = "educational_program_groups_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,8 +37,8 @@ public class EducationalProgramGroup {
     @Column(nullable = false, length = 20)
     private String code;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
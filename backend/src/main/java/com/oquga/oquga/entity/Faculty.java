@@ -17,15 +17,16 @@ import java.util.List;
 public class Faculty {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "faculties_id_seq")
+    @SequenceGenerator(name = "faculties_id_seq", sequenceName = "faculties_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "university_id", nullable = false)
     private University university;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class HistoryEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_events_id_seq")
+    @SequenceGenerator(name = "history_events_id_seq", sequenceName = "history_events_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,8 +28,8 @@ public class HistoryEvent {
     @Column(name = "event_description", columnDefinition = "TEXT")
     private String eventDescription;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
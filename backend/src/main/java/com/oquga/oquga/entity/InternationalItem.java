@@ -17,7 +17,8 @@ import java.util.List;
 public class InternationalItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "international_items_id_seq")
+    @SequenceGenerator(name = "international_items_id_seq", sequenceName = "international_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +17,8 @@ import java.util.List;
 public class InternationalSection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "international_sections_id_seq")
+    @SequenceGenerator(name = "international_sections_id_seq", sequenceName = "international_sections_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
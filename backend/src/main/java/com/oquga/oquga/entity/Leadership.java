@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Leadership {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leadership_id_seq")
+    @SequenceGenerator(name = "leadership_id_seq", sequenceName = "leadership_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,8 +31,8 @@ public class Leadership {
     @Column(name = "bio_summary", columnDefinition = "TEXT")
     private String bioSummary;
 
-    @Column(name = "photo")
-    private byte[] photo;
+    @Column(name = "photo_key", length = 500)
+    private String photoKey;
 
     @Column(name = "sort_order")
     private Integer sortOrder;
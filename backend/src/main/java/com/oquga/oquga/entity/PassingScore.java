@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class PassingScore {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passing_scores_id_seq")
+    @SequenceGenerator(name = "passing_scores_id_seq", sequenceName = "passing_scores_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
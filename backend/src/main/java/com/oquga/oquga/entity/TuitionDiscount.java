@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class TuitionDiscount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tuition_discounts_id_seq")
+    @SequenceGenerator(name = "tuition_discounts_id_seq", sequenceName = "tuition_discounts_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
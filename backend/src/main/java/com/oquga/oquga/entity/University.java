@@ -17,18 +17,24 @@ import java.util.List;
 public class University {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "universities_id_seq")
+    @SequenceGenerator(name = "universities_id_seq", sequenceName = "universities_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
     private String slug;
 
-    @Column(name = "logo")
-    private byte[] logo;
+    @Column(name = "logo_key", length = 500)
+    private String logoKey;
 
-    @Column(name = "photo_url", length = 500)
+    // both are changed only by the unversioned bulk updates of photo uploads and variant generation,
+    // so a section save racing an upload cannot write back the photo it loaded
+    @Column(name = "photo_url", length = 500, updatable = false)
     private String photoUrl;
 
+    @Column(name = "photo_variant_widths", updatable = false)
+    private Integer[] photoVariantWidths;
+
     @Column(name = "virtual_tour_url", length = 500)
     private String virtualTourUrl;
 
@@ -44,15 +50,23 @@ public class University {
     @Column(name = "contact_email", length = 255)
     private String contactEmail;
 
-    @Column(name = "view_count")
+    // written only by the view-count flusher, an entity update must not write back the count it loaded
+    @Column(name = "view_count", insertable = false, updatable = false)
     private Long viewCount = 0L;
 
+    @Column(name = "progress_percent", insertable = false, updatable = false)
+    private Integer progressPercent = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "university", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<UniversityTranslation> translations = new ArrayList<>();
 
@@ -167,11 +181,4 @@ public class University {
         internationalSections.remove(section);
         section.setUniversity(null);
     }
-
-    public void incrementViewCount() {
-        if (this.viewCount == null) {
-            this.viewCount = 0L;
-        }
-        this.viewCount++;
-    }
 }
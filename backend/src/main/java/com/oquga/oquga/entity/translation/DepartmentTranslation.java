@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class DepartmentTranslation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_translations_id_seq")
+    @SequenceGenerator(name = "department_translations_id_seq", sequenceName = "department_translations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class EducationalProgramGroupTranslation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "educational_program_group_translations_id_seq")
+    @SequenceGenerator(name = "educational_program_group_translations_id_seq", sequenceName = "educational_program_group_translations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class FacultyTranslation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "faculty_translations_id_seq")
+    @SequenceGenerator(name = "faculty_translations_id_seq", sequenceName = "faculty_translations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
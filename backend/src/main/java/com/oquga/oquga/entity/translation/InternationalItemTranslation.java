@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class InternationalItemTranslation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "international_item_translations_id_seq")
+    @SequenceGenerator(name = "international_item_translations_id_seq", sequenceName = "international_item_translations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
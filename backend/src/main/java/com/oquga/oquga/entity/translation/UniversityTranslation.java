@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class UniversityTranslation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "university_translations_id_seq")
+    @SequenceGenerator(name = "university_translations_id_seq", sequenceName = "university_translations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,7 @@
+package com.oquga.oquga.enums;
+
+public enum SuggestionType {
+    UNIVERSITY,
+    CITY,
+    PROGRAM
+}
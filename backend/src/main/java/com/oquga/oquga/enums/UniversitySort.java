@@ -0,0 +1,7 @@
+package com.oquga.oquga.enums;
+
+public enum UniversitySort {
+    NEWEST,
+    PROGRESS_ASC,
+    PROGRESS_DESC
+}
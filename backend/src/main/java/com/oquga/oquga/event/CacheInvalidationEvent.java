@@ -0,0 +1,28 @@
+package com.oquga.oquga.event;
+
+/**
+ * Delivered on every node when cached data changed anywhere in the cluster, including the node that made the change.
+ * A null entity means the bus may have missed notifications and all local caches must be dropped.
+ * {@code echo} marks a notification this node sent itself, after it already reacted to the local change.
+ */
+public record CacheInvalidationEvent(String entity, Long id, boolean echo) {
+
+    public static final String UNIVERSITY = "university";
+    public static final String REFERENCE = "reference";
+
+    public CacheInvalidationEvent(String entity, Long id) {
+        this(entity, id, false);
+    }
+
+    public static CacheInvalidationEvent all() {
+        return new CacheInvalidationEvent(null, null);
+    }
+
+    public boolean isFullFlush() {
+        return entity == null;
+    }
+
+    public boolean concerns(String entityName) {
+        return entity == null || entity.equals(entityName);
+    }
+}
@@ -0,0 +1,8 @@
+package com.oquga.oquga.event;
+
+/**
+ * Published inside the transaction that created or modified a university.
+ * Listeners that maintain derived read models should react to it after commit.
+ */
+public record UniversityChangedEvent(Long universityId) {
+}
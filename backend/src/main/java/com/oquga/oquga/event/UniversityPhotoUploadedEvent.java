@@ -0,0 +1,8 @@
+package com.oquga.oquga.event;
+
+/**
+ * Published inside the transaction that replaced a university's photo. Resized variants are generated
+ * from {@code photoKey} after commit, off the request thread.
+ */
+public record UniversityPhotoUploadedEvent(Long universityId, String photoKey) {
+}
@@ -0,0 +1,10 @@
+package com.oquga.oquga.event;
+
+import java.util.List;
+
+/**
+ * Published after buffered views were written to universities.view_count.
+ * The flush runs outside of any caller transaction, so listeners receive it immediately.
+ */
+public record UniversityViewsFlushedEvent(List<Long> universityIds) {
+}
@@ -0,0 +1,22 @@
+package com.oquga.oquga.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Thrown when an edit is based on an outdated version of a university. {@code conflicts} holds the
+ * current state of every submitted section that differs from what the client sent, keyed by section name.
+ */
+@Getter
+public class UniversityConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+    private final Map<String, Object> conflicts;
+
+    public UniversityConflictException(Long currentVersion, Map<String, Object> conflicts) {
+        super("University was modified by someone else, reload it and reapply your changes");
+        this.currentVersion = currentVersion;
+        this.conflicts = conflicts;
+    }
+}
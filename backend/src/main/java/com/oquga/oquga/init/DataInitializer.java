@@ -3,8 +3,8 @@ package com.oquga.oquga.init;
 import com.oquga.oquga.entity.Role;
 import com.oquga.oquga.entity.User;
 import com.oquga.oquga.enums.RoleType;
-import com.oquga.oquga.repository.RoleRepository;
 import com.oquga.oquga.repository.UserRepository;
+import com.oquga.oquga.service.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,7 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
     private final PasswordEncoder passwordEncoder;
 
     @Value("${application.security.admin.email}")
@@ -47,8 +47,7 @@ public class DataInitializer implements CommandLineRunner {
 
         log.info("Initializing Main Admin account...");
 
-        Role adminRole = roleRepository.findByName(RoleType.MAIN_ADMIN)
-                .orElseThrow(() -> new IllegalStateException("Role MAIN_ADMIN not found. Check Flyway migrations."));
+        Role adminRole = referenceDataService.getRole(RoleType.MAIN_ADMIN);
 
         User adminUser = User.builder()
                 .firstName("Main")
@@ -14,6 +14,11 @@ public interface EducationalProgramGroupRepository extends JpaRepository<Educati
             "WHERE pg.faculty.university.id = :universityId")
     List<EducationalProgramGroup> findByUniversityIdWithPrograms(@Param("universityId") Long universityId);
 
+    @Query("SELECT DISTINCT pg FROM EducationalProgramGroup pg " +
+            "LEFT JOIN FETCH pg.programs p " +
+            "WHERE pg.faculty.id = :facultyId")
+    List<EducationalProgramGroup> findByFacultyIdWithPrograms(@Param("facultyId") Long facultyId);
+
     @Query(value = """
         SELECT u.id FROM educational_program_groups epg
         JOIN educational_program_group_translations epgt ON epgt.program_group_id = epg.id
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface FacultyRepository extends JpaRepository<Faculty, Long> {
 
@@ -19,4 +20,15 @@ public interface FacultyRepository extends JpaRepository<Faculty, Long> {
             "LEFT JOIN FETCH pg.passingScore " +
             "WHERE f.university.id = :universityId")
     List<Faculty> findByUniversityIdWithProgramGroups(@Param("universityId") Long universityId);
+
+    @Query("SELECT DISTINCT f FROM Faculty f " +
+            "LEFT JOIN FETCH f.departments d " +
+            "WHERE f.id = :id AND f.university.id = :universityId")
+    Optional<Faculty> findByIdAndUniversityIdWithDepartments(@Param("id") Long id, @Param("universityId") Long universityId);
+
+    @Query("SELECT DISTINCT f FROM Faculty f " +
+            "LEFT JOIN FETCH f.programGroups pg " +
+            "LEFT JOIN FETCH pg.passingScore " +
+            "WHERE f.id = :id")
+    Optional<Faculty> findByIdWithProgramGroups(@Param("id") Long id);
 }
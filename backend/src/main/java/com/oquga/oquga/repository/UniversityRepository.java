@@ -1,43 +1,136 @@
 package com.oquga.oquga.repository;
 
 import com.oquga.oquga.entity.University;
+import com.oquga.oquga.repository.projection.PhotoSource;
+import com.oquga.oquga.repository.projection.SnapshotPayload;
+import com.oquga.oquga.repository.projection.SuggestionSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface UniversityRepository extends JpaRepository<University, Long> {
 
+    String SEARCH_QUERY_CONDITION =
+            "t.search_vector @@ (to_tsquery('russian', :query) || to_tsquery('english', :query) || to_tsquery('simple', :query))";
+
+    /**
+     * Full-text search over university_translations.search_vector (see V31).
+     * The query is matched with every configuration used by the column, so it works for any translation language.
+     * @param query tsquery expression, e.g. {@code назарбаев:* & унив:*}
+     */
     @Query(value =
-            "SELECT DISTINCT u.id FROM universities u " +
-                    "LEFT JOIN university_translations t ON u.id = t.university_id " +
-                    "WHERE LOWER(t.name) LIKE LOWER('%' || :search || '%') " +
-                    "OR LOWER(t.city) LIKE LOWER('%' || :search || '%') " +
-                    "ORDER BY u.created_at DESC",
+            "SELECT m.university_id FROM (" +
+                    "SELECT t.university_id, MAX(ts_rank(t.search_vector, " +
+                    "to_tsquery('russian', :query) || to_tsquery('english', :query) || to_tsquery('simple', :query))) AS rank " +
+                    "FROM university_translations t WHERE " + SEARCH_QUERY_CONDITION + " " +
+                    "GROUP BY t.university_id) m " +
+                    "ORDER BY m.rank DESC, m.university_id",
             countQuery =
-                    "SELECT COUNT(DISTINCT u.id) FROM universities u " +
-                            "LEFT JOIN university_translations t ON u.id = t.university_id " +
-                            "WHERE LOWER(t.name) LIKE LOWER('%' || :search || '%') " +
-                            "OR LOWER(t.city) LIKE LOWER('%' || :search || '%')",
+                    "SELECT COUNT(DISTINCT t.university_id) FROM university_translations t " +
+                            "WHERE " + SEARCH_QUERY_CONDITION,
             nativeQuery = true)
-    Page<Long> findIdsWithSearch(@Param("search") String search, Pageable pageable);
+    Page<Long> findIdsWithSearch(@Param("query") String query, Pageable pageable);
 
-    @Query(value =
-            "SELECT u.id FROM universities u ORDER BY u.created_at DESC",
-            countQuery = "SELECT COUNT(u.id) FROM universities u",
+    /**
+     * Typo-tolerant search by university and program group names (see V32).
+     * Matches use the {@code <%} operator, so the session's pg_trgm.word_similarity_threshold
+     * must be set first with {@link #setWordSimilarityThreshold}.
+     */
+    @Query(value = """
+            SELECT m.university_id FROM (
+                SELECT s.university_id, MAX(s.score) AS score FROM (
+                    SELECT t.university_id, word_similarity(:search, t.name) AS score
+                    FROM university_translations t
+                    WHERE :search <% t.name
+                    UNION ALL
+                    SELECT f.university_id, word_similarity(:search, gt.name) AS score
+                    FROM educational_program_group_translations gt
+                    JOIN educational_program_groups g ON g.id = gt.program_group_id
+                    JOIN faculties f ON f.id = g.faculty_id
+                    WHERE :search <% gt.name
+                ) s
+                GROUP BY s.university_id
+            ) m
+            ORDER BY m.score DESC, m.university_id
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM (
+                SELECT t.university_id FROM university_translations t WHERE :search <% t.name
+                UNION
+                SELECT f.university_id
+                FROM educational_program_group_translations gt
+                JOIN educational_program_groups g ON g.id = gt.program_group_id
+                JOIN faculties f ON f.id = g.faculty_id
+                WHERE :search <% gt.name
+            ) s
+            """,
             nativeQuery = true)
+    Page<Long> findIdsWithFuzzySearch(@Param("search") String search, Pageable pageable);
+
+    /**
+     * Sets pg_trgm.word_similarity_threshold for the current transaction only.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:threshold AS TEXT), true)",
+            nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") double threshold);
+
+    @Query(value = """
+            SELECT t.university_id AS universityId, l.code AS lang, 'UNIVERSITY' AS type, t.name AS text
+            FROM university_translations t
+            JOIN languages l ON l.id = t.language_id
+            UNION
+            SELECT CAST(NULL AS BIGINT), l.code, 'CITY', t.city
+            FROM university_translations t
+            JOIN languages l ON l.id = t.language_id
+            WHERE t.city IS NOT NULL AND t.city <> ''
+            UNION
+            SELECT CAST(NULL AS BIGINT), l.code, 'PROGRAM', gt.name
+            FROM educational_program_group_translations gt
+            JOIN languages l ON l.id = gt.language_id
+            """, nativeQuery = true)
+    List<SuggestionSource> findSuggestionSources();
+
+    @Query(value = """
+            SELECT u.id FROM universities u
+            ORDER BY u.created_at DESC, u.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findNewestIds(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT u.id FROM universities u
+            WHERE (u.created_at, u.id) < (:createdAt, :id)
+            ORDER BY u.created_at DESC, u.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findNewestIdsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  @Param("limit") int limit);
+
+    @Query(value = "SELECT u.id FROM University u",
+            countQuery = "SELECT COUNT(u) FROM University u")
     Page<Long> findAllIds(Pageable pageable);
 
     @Query("SELECT DISTINCT u FROM University u " +
             "LEFT JOIN FETCH u.translations t " +
             "LEFT JOIN FETCH t.language " +
+            "LEFT JOIN FETCH u.admissionRule " +
             "WHERE u.id IN :ids")
     List<University> findByIdsWithTranslations(@Param("ids") List<Long> ids);
 
+    @Query("SELECT u FROM University u " +
+            "LEFT JOIN FETCH u.admissionRule " +
+            "WHERE u.id IN :ids")
+    List<University> findByIdsWithAdmission(@Param("ids") List<Long> ids);
+
     @Query("SELECT DISTINCT u FROM University u " +
             "LEFT JOIN FETCH u.translations t " +
             "LEFT JOIN FETCH t.language " +
@@ -77,6 +170,282 @@ public interface UniversityRepository extends JpaRepository<University, Long> {
 
     boolean existsBySlug(String slug);
 
+    // view counts are left out, like in the catalog version: public responses may show a stale count
+    @Query(value = """
+            SELECT CONCAT(u.id, '-', CAST(EXTRACT(EPOCH FROM COALESCE(u.updated_at, u.created_at)) * 1000000 AS BIGINT))
+            FROM universities u
+            WHERE u.id = :id
+            """, nativeQuery = true)
+    Optional<String> findVersionById(@Param("id") Long id);
+
+    @Query(value = """
+            SELECT CONCAT(u.id, '-', CAST(EXTRACT(EPOCH FROM COALESCE(u.updated_at, u.created_at)) * 1000000 AS BIGINT),
+                          '-', u.view_count)
+            FROM universities u
+            WHERE u.id = :id
+            """, nativeQuery = true)
+    Optional<String> findDetailVersionById(@Param("id") Long id);
+
+    @Query(value = "SELECT version FROM catalog_versions WHERE name = 'universities'", nativeQuery = true)
+    Long findCatalogVersion();
+
+    // a bulk update leaves the version alone: the photo is not part of any edited section;
+    // the resized copies belong to the previous photo and are regenerated for the new one
+    @Modifying
+    @Query("UPDATE University u SET u.photoUrl = :photoUrl, u.photoVariantWidths = NULL, u.updatedAt = :updatedAt WHERE u.id = :id")
+    void updatePhoto(@Param("id") Long id, @Param("photoUrl") String photoUrl, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // matches on the photo key, so variants of a photo that was replaced meanwhile are not recorded;
+    // moves updatedAt like updatePhoto, the variants are part of the response and thus of its ETag
+    @Modifying
+    @Query("UPDATE University u SET u.photoVariantWidths = :widths, u.updatedAt = :updatedAt " +
+            "WHERE u.id = :id AND u.photoUrl = :photoUrl")
+    int updatePhotoVariants(@Param("id") Long id, @Param("photoUrl") String photoUrl, @Param("widths") Integer[] widths,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT u.id AS universityId, u.photoUrl AS photoKey FROM University u " +
+            "WHERE u.photoUrl IS NOT NULL AND u.photoVariantWidths IS NULL ORDER BY u.id")
+    List<PhotoSource> findPhotosWithoutVariants();
+
+    // locks the row: publishing and replacing the photo serialize on it, so a photo is either
+    // already in the new snapshots when the replacement looks for references, or not published at all
+    @Query(value = "SELECT photo_url FROM universities WHERE id = :id FOR UPDATE", nativeQuery = true)
+    String lockPhotoKey(@Param("id") Long id);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM university_snapshots WHERE university_id = :id AND photo_key = :photoKey)",
+            nativeQuery = true)
+    boolean isPhotoPublished(@Param("id") Long id, @Param("photoKey") String photoKey);
+
+    @Query(value = "SELECT DISTINCT photo_key FROM university_snapshots WHERE university_id = :id AND photo_key IS NOT NULL",
+            nativeQuery = true)
+    List<String> findPublishedPhotoKeys(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM university_snapshots WHERE university_id = :id OR slug = :slug", nativeQuery = true)
+    void deleteSnapshots(@Param("id") Long id, @Param("slug") String slug);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO university_snapshots (slug, language_code, university_id, payload, photo_key, published_at)
+            VALUES (:slug, :lang, :id, CAST(:payload AS JSONB), :photoKey, :publishedAt)
+            """, nativeQuery = true)
+    void insertSnapshot(@Param("id") Long id,
+                        @Param("slug") String slug,
+                        @Param("lang") String lang,
+                        @Param("payload") String payload,
+                        @Param("photoKey") String photoKey,
+                        @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Query(value = """
+            SELECT CAST(payload AS TEXT) AS payload, photo_key AS "photoKey" FROM university_snapshots
+            WHERE slug = :slug AND language_code = :lang
+            """, nativeQuery = true)
+    Optional<SnapshotPayload> findSnapshotPayload(@Param("slug") String slug, @Param("lang") String lang);
+
+    @Query(value = """
+            UPDATE universities SET progress_percent = university_progress_percent(id)
+            WHERE id = :id
+            RETURNING CAST(progress_percent AS INTEGER)
+            """, nativeQuery = true)
+    Integer refreshProgressPercent(@Param("id") Long id);
+
+    @Transactional
+    @Query(value = """
+            UPDATE universities u SET view_count = u.view_count + v.delta
+            FROM unnest(CAST(:ids AS BIGINT[]), CAST(:deltas AS BIGINT[])) AS v(id, delta)
+            WHERE u.id = v.id
+            RETURNING u.id
+            """, nativeQuery = true)
+    List<Long> addViewCounts(@Param("ids") Long[] ids, @Param("deltas") Long[] deltas);
+
+    @Query(value = """
+        SELECT CAST(jsonb_build_object(
+            'id', u.id,
+            'slug', u.slug,
+            'photoUrl', u.photo_url,
+            'websiteUrl', u.website_url,
+            'virtualTourUrl', u.virtual_tour_url,
+            'foundedYear', u.founded_year,
+            'contactPhone', u.contact_phone,
+            'contactEmail', u.contact_email,
+            'viewCount', u.view_count,
+            'createdAt', u.created_at,
+            'updatedAt', u.updated_at,
+            'version', u.version,
+            'translations', pick_translation(COALESCE((
+                SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                    'name', t.name,
+                    'shortDescription', t.short_description,
+                    'description', t.description,
+                    'goal', t.goal,
+                    'address', t.address,
+                    'city', t.city,
+                    'historyText', t.history_text,
+                    'isComplete', false))
+                FROM university_translations t
+                JOIN languages l ON l.id = t.language_id
+                WHERE t.university_id = u.id
+                    AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[])),
+            'leadership', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', x.id,
+                    'fullName', x.full_name,
+                    'position', x.position,
+                    'bioSummary', x.bio_summary,
+                    'sortOrder', x.sort_order) ORDER BY COALESCE(x.sort_order, 0), x.id)
+                FROM leadership x
+                WHERE x.university_id = u.id), CAST('[]' AS jsonb)),
+            'achievements', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', a.id,
+                    'title', a.title,
+                    'year', a.year,
+                    'rankValue', a.rank_value,
+                    'details', a.details,
+                    'sortOrder', a.sort_order) ORDER BY COALESCE(a.sort_order, 0), a.id)
+                FROM achievements a
+                WHERE a.university_id = u.id), CAST('[]' AS jsonb)),
+            'historyEvents', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', h.id,
+                    'eventYear', h.event_year,
+                    'eventDescription', h.event_description,
+                    'sortOrder', h.sort_order) ORDER BY COALESCE(h.sort_order, 0), h.id)
+                FROM history_events h
+                WHERE h.university_id = u.id), CAST('[]' AS jsonb)),
+            'faculties', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', f.id,
+                    'sortOrder', f.sort_order,
+                    'translations', pick_translation(COALESCE((
+                        SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                            'name', ft.name,
+                            'description', ft.description))
+                        FROM faculty_translations ft
+                        JOIN languages l ON l.id = ft.language_id
+                        WHERE ft.faculty_id = f.id
+                            AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[])),
+                    'departments', COALESCE((
+                        SELECT jsonb_agg(jsonb_build_object(
+                            'id', d.id,
+                            'sortOrder', d.sort_order,
+                            'translations', pick_translation(COALESCE((
+                                SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                                    'name', dt.name,
+                                    'goal', dt.goal,
+                                    'mission', dt.mission,
+                                    'tasks', dt.tasks))
+                                FROM department_translations dt
+                                JOIN languages l ON l.id = dt.language_id
+                                WHERE dt.department_id = d.id
+                                    AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[]))
+                        ) ORDER BY COALESCE(d.sort_order, 0), d.id)
+                        FROM departments d
+                        WHERE d.faculty_id = f.id), CAST('[]' AS jsonb)),
+                    'programGroups', COALESCE((
+                        SELECT jsonb_agg(jsonb_build_object(
+                            'id', g.id,
+                            'departmentId', g.department_id,
+                            'degreeLevel', g.degree_level,
+                            'code', g.code,
+                            'sortOrder', g.sort_order,
+                            'translations', pick_translation(COALESCE((
+                                SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                                    'name', gt.name,
+                                    'description', gt.description))
+                                FROM educational_program_group_translations gt
+                                JOIN languages l ON l.id = gt.language_id
+                                WHERE gt.program_group_id = g.id
+                                    AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[])),
+                            'programs', COALESCE((
+                                SELECT jsonb_agg(jsonb_build_object(
+                                    'id', p.id,
+                                    'code', p.code,
+                                    'sortOrder', p.sort_order,
+                                    'translations', pick_translation(COALESCE((
+                                        SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                                            'name', pt.name,
+                                            'description', pt.description))
+                                        FROM educational_program_translations pt
+                                        JOIN languages l ON l.id = pt.language_id
+                                        WHERE pt.program_id = p.id
+                                            AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[]))
+                                ) ORDER BY COALESCE(p.sort_order, 0), p.id)
+                                FROM educational_programs p
+                                WHERE p.program_group_id = g.id), CAST('[]' AS jsonb)),
+                            'passingScore', (
+                                SELECT jsonb_build_object(
+                                    'minScoreGrant', ps.min_score_grant,
+                                    'minScorePaid', ps.min_score_paid,
+                                    'profileSubjects', ps.profile_subjects,
+                                    'isCreativeExam', ps.is_creative_exam)
+                                FROM passing_scores ps
+                                WHERE ps.program_group_id = g.id)
+                        ) ORDER BY COALESCE(g.sort_order, 0), g.id)
+                        FROM educational_program_groups g
+                        WHERE g.faculty_id = f.id), CAST('[]' AS jsonb))
+                ) ORDER BY COALESCE(f.sort_order, 0), f.id)
+                FROM faculties f
+                WHERE f.university_id = u.id), CAST('[]' AS jsonb)),
+            'admissionRule', (
+                SELECT jsonb_build_object(
+                    'startDate', ar.start_date,
+                    'endDate', ar.end_date,
+                    'documentsText', ar.documents_text,
+                    'stepsText', ar.steps_text,
+                    'militaryDepartmentInfo', ar.military_department_info,
+                    'dormitoryInfo', ar.dormitory_info)
+                FROM admission_rules ar
+                WHERE ar.university_id = u.id),
+            'tuitionDiscounts', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', td.id,
+                    'categoryName', td.category_name,
+                    'pricePerYear', td.price_per_year,
+                    'scholarshipInfo', td.scholarship_info,
+                    'sortOrder', td.sort_order) ORDER BY COALESCE(td.sort_order, 0), td.id)
+                FROM tuition_discounts td
+                WHERE td.university_id = u.id), CAST('[]' AS jsonb)),
+            'internationalSections', COALESCE((
+                SELECT jsonb_agg(jsonb_build_object(
+                    'id', s.id,
+                    'externalUrl', s.external_url,
+                    'sortOrder', s.sort_order,
+                    'isActive', s.is_active,
+                    'translations', pick_translation(COALESCE((
+                        SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                            'title', st.title,
+                            'description', st.description))
+                        FROM international_section_translations st
+                        JOIN languages l ON l.id = st.language_id
+                        WHERE st.section_id = s.id
+                            AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[])),
+                    'items', COALESCE((
+                        SELECT jsonb_agg(jsonb_build_object(
+                            'id', i.id,
+                            'externalUrl', i.external_url,
+                            'sortOrder', i.sort_order,
+                            'isActive', i.is_active,
+                            'translations', pick_translation(COALESCE((
+                                SELECT jsonb_object_agg(l.code, jsonb_build_object(
+                                    'title', it.title,
+                                    'description', it.description))
+                                FROM international_item_translations it
+                                JOIN languages l ON l.id = it.language_id
+                                WHERE it.item_id = i.id
+                                    AND (cardinality(CAST(:langs AS TEXT[])) = 0 OR l.code = ANY(CAST(:langs AS TEXT[])))), CAST('{}' AS jsonb)), CAST(:langs AS TEXT[]))
+                        ) ORDER BY COALESCE(i.sort_order, 0), i.id)
+                        FROM international_items i
+                        WHERE i.section_id = s.id), CAST('[]' AS jsonb))
+                ) ORDER BY COALESCE(s.sort_order, 0), s.id)
+                FROM international_sections s
+                WHERE s.university_id = u.id), CAST('[]' AS jsonb))
+        ) AS text)
+        FROM universities u
+        WHERE u.id = :id
+        """, nativeQuery = true)
+    Optional<String> findDetailJsonById(@Param("id") Long id, @Param("langs") String[] langs);
+
     @Query(value = """
         SELECT DISTINCT u.id FROM universities u
         JOIN university_translations ut ON u.id = ut.university_id
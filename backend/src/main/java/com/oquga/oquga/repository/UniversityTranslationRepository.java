@@ -0,0 +1,21 @@
+package com.oquga.oquga.repository;
+
+import com.oquga.oquga.entity.translation.UniversityTranslation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UniversityTranslationRepository extends JpaRepository<UniversityTranslation, Long> {
+
+    @Query("SELECT t FROM UniversityTranslation t " +
+            "JOIN FETCH t.language l " +
+            "WHERE t.university.id IN :universityIds " +
+            "AND l.code IN :codes")
+    List<UniversityTranslation> findByUniversityIdsAndLanguageCodes(
+            @Param("universityIds") Collection<Long> universityIds,
+            @Param("codes") Collection<String> codes
+    );
+}
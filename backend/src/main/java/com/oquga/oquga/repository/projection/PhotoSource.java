@@ -0,0 +1,8 @@
+package com.oquga.oquga.repository.projection;
+
+public interface PhotoSource {
+
+    Long getUniversityId();
+
+    String getPhotoKey();
+}
@@ -0,0 +1,8 @@
+package com.oquga.oquga.repository.projection;
+
+public interface SnapshotPayload {
+
+    String getPayload();
+
+    String getPhotoKey();
+}
@@ -0,0 +1,12 @@
+package com.oquga.oquga.repository.projection;
+
+public interface SuggestionSource {
+
+    Long getUniversityId();
+
+    String getLang();
+
+    String getType();
+
+    String getText();
+}
@@ -3,12 +3,40 @@ package com.oquga.oquga.service;
 import com.oquga.oquga.dto.ai.req.ChatRequest;
 import com.oquga.oquga.dto.ai.res.ChatResponse;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 public interface AiService {
+
+    /**
+     * Получатель потокового ответа чата. Методы вызываются из фонового виртуального потока.
+     */
+    interface ChatStreamListener {
+
+        /**
+         * Очередной фрагмент текста по мере генерации. Исключение означает, что клиент отключился,
+         * и прерывает запрос к модели.
+         */
+        void onDelta(String content) throws IOException;
+
+        /**
+         * Итоговый ответ с полным текстом и интерактивными элементами, вызывается последним.
+         */
+        void onComplete(ChatResponse response);
+
+        void onError(Exception e);
+    }
+
     ChatResponse chat(ChatRequest request);
 
+    /**
+     * Отвечает на сообщение чата потоково, не дожидаясь, пока модель сгенерирует весь ответ.
+     * Шаги теста профориентации не стримятся и приходят сразу через onComplete.
+     * @return действие, прерывающее запрос к модели, например при отключении клиента
+     */
+    Runnable streamChat(ChatRequest request, ChatStreamListener listener);
+
     ChatResponse startCareerTest(String sessionId);
 
     ChatResponse processTestAnswer(String sessionId, ChatRequest.InteractiveAnswerDto answer,
@@ -18,4 +46,10 @@ public interface AiService {
                                                                    List<String> preferences);
 
     Map<String, Object> analyzeTestResults(List<ChatRequest.AnswerDto> answers);
+
+    /**
+     * Генерирует вопросы для профилей, которые банк вопросов выдал на пополнение.
+     * @return количество добавленных вопросов
+     */
+    int refillQuestionBank();
 }
@@ -0,0 +1,12 @@
+package com.oquga.oquga.service;
+
+public interface BlobMigrationService {
+
+    /**
+     * Переносит логотипы и фотографии, оставшиеся в bytea-колонках, в хранилище: загружает содержимое,
+     * записывает ключ объекта и очищает колонку. Строки, у которых ключ уже есть, пропускаются,
+     * поэтому повторный запуск безопасен.
+     * @return количество перенесённых строк
+     */
+    int migrateAll();
+}
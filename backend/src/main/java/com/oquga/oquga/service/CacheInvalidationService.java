@@ -0,0 +1,14 @@
+package com.oquga.oquga.service;
+
+public interface CacheInvalidationService {
+
+    /**
+     * Отправляет уведомление об изменении в канал oquga_invalidation. Postgres доставляет уведомление после
+     * коммита той транзакции, в которой вызван метод. Изменения университетов объявляются не из пишущей
+     * транзакции, а после её коммита, в отдельной транзакции (REQUIRES_NEW): если узел упадёт между коммитом
+     * и этой транзакцией, уведомление потеряется, и остальные узлы держат старые записи до истечения TTL.
+     * @param entity тип сущности, например "university"
+     * @param id ID изменённой сущности
+     */
+    void publish(String entity, Long id);
+}
@@ -0,0 +1,46 @@
+package com.oquga.oquga.service;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CareerQuestionBankService {
+
+    /**
+     * Профиль, для которого банк нужно пополнить.
+     * @param bankedTypes типы вопросов, которые для него уже есть
+     * @param missing сколько вопросов не хватает до целевого количества
+     */
+    record RefillTarget(int step, List<String> profileTags, List<String> bankedTypes, int missing) {
+    }
+
+    /**
+     * Выбирает из банка вопрос для шага и профиля, не обращаясь к базе.
+     * @param step номер шага (с нуля)
+     * @param profile теги ответов пользователя, порядок и повторы не важны
+     * @param usedQuestionTypes типы, которые пользователь уже видел
+     * @return вопрос в JSON-формате генератора или пусто, если подходящего вопроса нет
+     */
+    Optional<String> pick(int step, List<String> profile, List<String> usedQuestionTypes);
+
+    /**
+     * Запоминает, что для шага и профиля не нашлось вопроса, чтобы фоновое пополнение сгенерировало его заранее.
+     */
+    void recordMiss(int step, List<String> profile);
+
+    /**
+     * Добавляет в банк проверенный вопрос.
+     */
+    void add(int step, List<String> profile, String questionType, String payload);
+
+    /**
+     * Удаляет устаревшие вопросы и невостребованные профили, затем забирает профили для пополнения.
+     * Забранный профиль не выдаётся другим репликам до следующего цикла пополнения.
+     */
+    List<RefillTarget> claimRefillTargets();
+
+    /**
+     * Перечитывает банк из базы, подхватывая вопросы, добавленные другими репликами.
+     * @return количество вопросов в банке
+     */
+    int reload();
+}
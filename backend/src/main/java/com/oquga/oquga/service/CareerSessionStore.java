@@ -0,0 +1,60 @@
+package com.oquga.oquga.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+public interface CareerSessionStore {
+
+    /**
+     * Состояние сессии профориентационного теста. Неизменяемое: каждое изменение создаёт новую копию,
+     * которую хранилище атомарно записывает вместо старой.
+     * @param questionIndex номер текущего вопроса (с нуля)
+     * @param profile теги, собранные из ответов
+     * @param usedQuestionTypes типы вопросов, которые уже были заданы
+     */
+    record CareerSession(String sessionId, int questionIndex, List<String> profile, List<String> usedQuestionTypes) {
+
+        public CareerSession {
+            profile = List.copyOf(profile);
+            usedQuestionTypes = List.copyOf(usedQuestionTypes);
+        }
+
+        public static CareerSession start(String sessionId, int questionIndex) {
+            return new CareerSession(sessionId, questionIndex, List.of(), List.of());
+        }
+
+        public CareerSession withAnswer(List<String> tags) {
+            List<String> updated = new ArrayList<>(profile);
+            updated.addAll(tags);
+            return new CareerSession(sessionId, questionIndex + 1, updated, usedQuestionTypes);
+        }
+
+        public CareerSession withQuestionType(String type) {
+            if (usedQuestionTypes.contains(type)) {
+                return this;
+            }
+            List<String> updated = new ArrayList<>(usedQuestionTypes);
+            updated.add(type);
+            return new CareerSession(sessionId, questionIndex, profile, updated);
+        }
+    }
+
+    /**
+     * Возвращает сессию и продлевает её срок жизни.
+     */
+    Optional<CareerSession> get(String sessionId);
+
+    void save(CareerSession session);
+
+    /**
+     * Атомарно заменяет сессию результатом функции. Функция может вызываться повторно при конкурентном
+     * изменении той же сессии, поэтому не должна иметь побочных эффектов.
+     * @param update получает текущую сессию или null, если её нет; null в ответ удаляет сессию
+     * @return записанная сессия или null, если она удалена
+     */
+    CareerSession update(String sessionId, UnaryOperator<CareerSession> update);
+
+    void remove(String sessionId);
+}
@@ -0,0 +1,22 @@
+package com.oquga.oquga.service;
+
+import java.util.function.Supplier;
+
+public interface CatalogCacheService {
+
+    /**
+     * Общий для всех реплик кэш ответов уровня каталога (страницы списка). Запись хранится под
+     * версией каталога, которую контроллер отдаёт в ETag, поэтому тело всегда соответствует ETag.
+     * @param catalogVersion версия каталога, прочитанная до построения ответа
+     * @param key ключ, однозначно описывающий параметры запроса
+     * @param loader строит ответ при промахе
+     */
+    <T> T getCatalogEntry(long catalogVersion, String key, Class<T> type, Supplier<T> loader);
+
+    /**
+     * Общий кэш ответов по одному университету, хранится под версией университета, которую
+     * контроллер отдаёт в ETag (краткий ответ и подробный используют разные версии).
+     * @param version версия, прочитанная до построения ответа
+     */
+    <T> T getUniversityEntry(Long universityId, String version, String key, Class<T> type, Supplier<T> loader);
+}
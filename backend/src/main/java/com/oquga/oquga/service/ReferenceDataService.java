@@ -0,0 +1,28 @@
+package com.oquga.oquga.service;
+
+import com.oquga.oquga.entity.Language;
+import com.oquga.oquga.entity.Role;
+import com.oquga.oquga.enums.RoleType;
+
+import java.util.List;
+
+public interface ReferenceDataService {
+
+    /**
+     * Возвращает ссылку на язык без запроса к базе, для записи в связи переводов.
+     * @param code код языка (ru, kk, en)
+     * @throws RuntimeException если язык не найден
+     */
+    Language getLanguage(String code);
+
+    /**
+     * Возвращает ссылку на роль без запроса к базе.
+     * @throws IllegalStateException если роль отсутствует в справочнике
+     */
+    Role getRole(RoleType name);
+
+    /**
+     * Коды всех языков в порядке sortOrder.
+     */
+    List<String> getLanguageCodes();
+}
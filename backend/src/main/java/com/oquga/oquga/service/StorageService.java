@@ -2,9 +2,20 @@ package com.oquga.oquga.service;
 
 import org.springframework.web.multipart.MultipartFile;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 
 public interface StorageService {
 
+    /**
+     * Подписанная форма для загрузки файла из браузера напрямую в хранилище.
+     * @param url адрес, на который отправляется multipart/form-data POST
+     * @param fields поля формы, которые нужно передать перед самим файлом
+     * @param expiresAt момент, после которого подпись недействительна
+     */
+    record PresignedUpload(String url, Map<String, String> fields, Instant expiresAt) {}
+
     /**
      * Загружает файл в хранилище.
      * @param file файл из запроса
@@ -13,6 +24,47 @@ public interface StorageService {
      */
     String upload(MultipartFile file, String folder);
 
+    /**
+     * Загружает содержимое из потока в хранилище (например, при переносе данных из БД).
+     * @param content поток с данными; закрывает вызывающая сторона
+     * @param size размер содержимого в байтах
+     * @param contentType MIME-тип содержимого
+     * @param folder название папки
+     * @return относительный путь к файлу (ключ объекта)
+     */
+    String upload(InputStream content, long size, String contentType, String folder);
+
+    /**
+     * Сохраняет содержимое под заданным ключом, перезаписывая существующий объект.
+     * @param objectName ключ объекта (путь)
+     * @param content поток с данными; закрывает вызывающая сторона
+     * @param size размер содержимого в байтах
+     * @param contentType MIME-тип содержимого
+     */
+    void put(String objectName, InputStream content, long size, String contentType);
+
+    /**
+     * Подписывает загрузку одного объекта из браузера. Хранилище само отклонит файл с другим ключом,
+     * другим MIME-типом или размером больше допустимого.
+     * @param objectName ключ, под которым будет сохранён файл
+     * @param contentType MIME-тип, который обязан указать клиент
+     * @param maxSize максимальный размер файла в байтах
+     * @param ttl срок действия подписи
+     */
+    PresignedUpload presignUpload(String objectName, String contentType, long maxSize, Duration ttl);
+
+    /**
+     * Возвращает размер объекта в байтах.
+     * @throws IllegalArgumentException если объекта нет
+     */
+    long getSize(String objectName);
+
+    /**
+     * Читает первые байты объекта (например, для проверки сигнатуры файла).
+     * @param length сколько байт прочитать; если объект короче, возвращается всё содержимое
+     */
+    byte[] readHead(String objectName, int length);
+
     /**
      * Удаляет файл из хранилища.
      * @param objectName ключ объекта (путь)
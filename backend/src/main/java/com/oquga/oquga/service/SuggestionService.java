@@ -0,0 +1,21 @@
+package com.oquga.oquga.service;
+
+import com.oquga.oquga.dto.university.res.SuggestionResponse;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    /**
+     * Подсказки для строки поиска из индекса в памяти, без обращения к базе.
+     * @param query введённый текст, совпадение ищется по началу любого слова
+     * @param lang код языка (kk, ru, en) или null для всех языков
+     * @param limit максимальное количество подсказок
+     */
+    List<SuggestionResponse> suggest(String query, String lang, int limit);
+
+    /**
+     * Перестраивает индекс подсказок по таблицам переводов.
+     */
+    void rebuild();
+}
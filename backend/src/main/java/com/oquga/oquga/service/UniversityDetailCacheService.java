@@ -0,0 +1,20 @@
+package com.oquga.oquga.service;
+
+import java.util.List;
+
+public interface UniversityDetailCacheService {
+
+    /**
+     * Возвращает UniversityDetailResponse, уже сериализованный в JSON. При промахе ответ строится
+     * один раз, параллельные запросы того же ключа ждут результат вместо повторной загрузки.
+     * @param universityId ID университета
+     * @param version версия университета, которую контроллер отдаёт в ETag; байты другой версии не возвращаются
+     * @param languages предпочтительный язык и запасной, пустой список - все переводы
+     */
+    byte[] getDetailJson(Long universityId, String version, List<String> languages);
+
+    /**
+     * Удаляет из кэша все языковые варианты университета.
+     */
+    void evict(Long universityId);
+}
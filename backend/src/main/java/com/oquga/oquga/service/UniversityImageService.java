@@ -0,0 +1,21 @@
+package com.oquga.oquga.service;
+
+import java.util.Map;
+
+public interface UniversityImageService {
+
+    /**
+     * Возвращает ключи уменьшенных копий фотографии. Ключи детерминированы: копия лежит рядом
+     * с оригиналом, к имени которого добавлен суффикс с шириной.
+     * @param photoKey ключ оригинала
+     * @param widths ширины сгенерированных копий (может быть null, если копии ещё не готовы)
+     * @return ключи копий по ширине, по возрастанию ширины
+     */
+    Map<Integer, String> variantKeys(String photoKey, Integer[] widths);
+
+    /**
+     * Запускает в фоне генерацию копий для всех фотографий, у которых их ещё нет.
+     * @return количество фотографий, поставленных в обработку
+     */
+    int backfill();
+}
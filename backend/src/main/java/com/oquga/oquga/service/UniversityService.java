@@ -1,25 +1,81 @@
 package com.oquga.oquga.service;
 
 import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.PhotoUploadUrlRequest;
+import com.oquga.oquga.dto.university.req.UpdateBasicInfoRequest;
 import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.PhotoUploadUrlResponse;
+import com.oquga.oquga.dto.university.res.UniversityBasicInfoResponse;
 import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
 import com.oquga.oquga.dto.university.res.UniversityListResponse;
 import com.oquga.oquga.dto.university.res.UniversityResponse;
-import org.springframework.web.multipart.MultipartFile;
+import com.oquga.oquga.dto.university.res.UniversitySectionResponse;
+import com.oquga.oquga.enums.UniversitySort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface UniversityService {
 
-    UniversityListResponse getUniversities(String search, int page, int limit);
+    UniversityListResponse getUniversities(String search, int page, int limit, UniversitySort sort, boolean fuzzy,
+                                           List<String> languages);
+
+    UniversityListResponse getUniversitiesAfter(String cursor, int limit, boolean includeTotal, List<String> languages);
+
+    UniversityResponse getUniversityById(Long id, List<String> languages);
+
+    UniversityDetailResponse getUniversityDetail(Long id, List<String> languages);
 
-    UniversityResponse getUniversityById(Long id);
+    Optional<String> getUniversityVersion(Long id);
 
-    UniversityDetailResponse getUniversityDetail(Long id);
+    Optional<String> getUniversityDetailVersion(Long id);
+
+    long getCatalogVersion();
 
     UniversityResponse createUniversity(CreateUniversityRequest request);
 
     UniversityDetailResponse updateUniversity(Long id, UpdateUniversityRequest request, String userEmail);
 
-    String uploadPhoto(Long id, MultipartFile file, String userEmail);
+    UniversitySectionResponse<UniversityBasicInfoResponse> patchBasicInfo(
+            Long id, long version, UpdateBasicInfoRequest request, String userEmail);
+
+    UniversitySectionResponse<Map<String, UniversityDetailResponse.TranslationDto>> patchTranslations(
+            Long id, long version, Map<String, UpdateUniversityRequest.TranslationDto> translations, String userEmail);
+
+    UniversitySectionResponse<List<UniversityDetailResponse.LeadershipDto>> patchLeadership(
+            Long id, long version, List<UpdateUniversityRequest.LeadershipDto> leadership, String userEmail);
+
+    UniversitySectionResponse<List<UniversityDetailResponse.AchievementDto>> patchAchievements(
+            Long id, long version, List<UpdateUniversityRequest.AchievementDto> achievements, String userEmail);
+
+    UniversitySectionResponse<List<UniversityDetailResponse.HistoryEventDto>> patchHistoryEvents(
+            Long id, long version, List<UpdateUniversityRequest.HistoryEventDto> historyEvents, String userEmail);
+
+    UniversitySectionResponse<UniversityDetailResponse.FacultyDto> patchFaculty(
+            Long id, Long facultyId, long version, UpdateUniversityRequest.FacultyDto faculty, String userEmail);
+
+    UniversitySectionResponse<UniversityDetailResponse.AdmissionRuleDto> patchAdmissionRule(
+            Long id, long version, UpdateUniversityRequest.AdmissionRuleDto admissionRule, String userEmail);
+
+    UniversitySectionResponse<List<UniversityDetailResponse.TuitionDiscountDto>> patchTuitionDiscounts(
+            Long id, long version, List<UpdateUniversityRequest.TuitionDiscountDto> tuitionDiscounts, String userEmail);
+
+    UniversitySectionResponse<List<UniversityDetailResponse.InternationalSectionDto>> patchInternationalSections(
+            Long id, long version, List<UpdateUniversityRequest.InternationalSectionDto> internationalSections, String userEmail);
+
+    /**
+     * Подписывает прямую загрузку фотографии из браузера в хранилище. Сам файл через бэкенд не проходит.
+     * @param request MIME-тип и размер файла, которые хранилище потребует при загрузке
+     */
+    PhotoUploadUrlResponse createPhotoUploadUrl(Long id, PhotoUploadUrlRequest request, String userEmail);
+
+    /**
+     * Проверяет загруженный объект (размер, сигнатура изображения) и делает его фотографией университета.
+     * Старая фотография и её копии удаляются после коммита.
+     * @return URL новой фотографии
+     */
+    String confirmPhotoUpload(Long id, String objectKey, String userEmail);
 
     void incrementViewCount(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.oquga.oquga.service;
+
+import com.oquga.oquga.dto.university.res.PublishResponse;
+
+public interface UniversitySnapshotService {
+
+    /**
+     * Публикует текущее состояние университета: полный профиль рендерится отдельно для каждого языка
+     * и заменяет предыдущую опубликованную версию. Дальнейшие правки остаются черновиком до следующей публикации.
+     * Фотография, на которую ссылалась только предыдущая версия, удаляется из хранилища после коммита.
+     * @param universityId ID университета
+     * @param userEmail email администратора, выполняющего публикацию
+     */
+    PublishResponse publish(Long universityId, String userEmail);
+
+    /**
+     * Возвращает опубликованный профиль в виде готового JSON, одним чтением по первичному ключу.
+     * Ссылка на фотографию подписывается при каждом вызове, потому что подписанные ссылки истекают.
+     * @param slug slug университета на момент публикации
+     * @param lang код языка (kk, ru, en)
+     */
+    String getPublishedProfile(String slug, String lang);
+}
@@ -0,0 +1,16 @@
+package com.oquga.oquga.service;
+
+public interface ViewCountService {
+
+    /**
+     * Учитывает просмотр страницы университета в памяти, без обращения к базе.
+     * @param universityId ID университета
+     */
+    void recordView(Long universityId);
+
+    /**
+     * Записывает накопленные просмотры в базу одним запросом.
+     * @return количество университетов, у которых обновился счётчик
+     */
+    int flush();
+}
@@ -11,52 +11,106 @@ import com.oquga.oquga.entity.translation.UniversityTranslation;
 import com.oquga.oquga.repository.EducationalProgramGroupRepository;
 import com.oquga.oquga.repository.UniversityRepository;
 import com.oquga.oquga.service.AiService;
-import lombok.RequiredArgsConstructor;
+import com.oquga.oquga.service.CareerQuestionBankService;
+import com.oquga.oquga.service.CareerSessionStore;
+import com.oquga.oquga.service.CareerSessionStore.CareerSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Career test and chat on top of an OpenAI-compatible LLM. LLM round-trips can take minutes, so none of them
+ * runs inside a transaction: a pinned connection per slow answer would drain the shared pool and stall the
+ * catalog. Database work happens in short read-only transactions after the model has answered.
+ * Every LLM call passes an {@link LlmCallGuard} with an adaptive concurrency limit and a circuit breaker, and has
+ * a deadline matching its task; refused or failed calls end in the usual fallback answers.
+ * Streamed chat answers run on virtual threads and forward each delta as it arrives; cancelling a stream
+ * cancels the upstream HTTP call.
+ * Career test state lives in a {@link CareerSessionStore}, so any replica can continue a test. Test questions
+ * come from the {@link CareerQuestionBankService} where possible; this service also keeps that bank topped up
+ * on its own refill thread, away from the shared scheduler.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AiServiceImpl implements AiService {
 
     private final AiConfig aiConfig;
     private final UniversityRepository universityRepository;
     private final EducationalProgramGroupRepository programGroupRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CareerSessionStore sessionStore;
+    private final CareerQuestionBankService questionBank;
+    private final int refillMaxCalls;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final OkHttpClient httpClient = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .writeTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .build();
+    private final LlmCallGuard llmGuard;
+    private final Counter llmCallsInTransaction;
 
-    private final Map<String, TestSession> activeSessions = new ConcurrentHashMap<>();
+    private final ExecutorService streamExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-chat-stream-", 0).factory());
+
+    // a refill cycle makes minutes of blocking LLM calls, on the shared scheduler thread it would hold back
+    // the view-count flush and the question-bank reload
+    private final ExecutorService refillExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("question-bank-refill").daemon().factory());
+    private final AtomicBoolean refillRunning = new AtomicBoolean();
+
+    private final OkHttpClient httpClient;
 
     private static final int TOTAL_QUESTIONS = 10;
 
-    private static class TestSession {
-        String sessionId;
-        int currentQuestionIndex;
-        List<String> accumulatedProfile;
-        Set<String> usedQuestionTypes;
-        long createdAt;
-
-        TestSession(String sessionId) {
-            this.sessionId = sessionId;
-            this.currentQuestionIndex = 0;
-            this.accumulatedProfile = new ArrayList<>();
-            this.usedQuestionTypes = new HashSet<>();
-            this.createdAt = System.currentTimeMillis();
-        }
+    private static final Set<String> QUESTION_TYPES = Set.of(
+            "image_choice", "scenario_choice", "drag_rank", "skill_bars", "versus_choice", "swipe_cards", "multiple_choice");
+
+    public AiServiceImpl(AiConfig aiConfig,
+                         UniversityRepository universityRepository,
+                         EducationalProgramGroupRepository programGroupRepository,
+                         PlatformTransactionManager transactionManager,
+                         CareerSessionStore sessionStore,
+                         CareerQuestionBankService questionBank,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.ai.question-bank.refill-max-calls:50}") int refillMaxCalls) {
+        this.aiConfig = aiConfig;
+        this.universityRepository = universityRepository;
+        this.programGroupRepository = programGroupRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sessionStore = sessionStore;
+        this.questionBank = questionBank;
+        this.refillMaxCalls = refillMaxCalls;
+
+        // whole-call deadlines are set per task, these only bound the individual network steps
+        this.httpClient = new OkHttpClient.Builder()
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(120, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(aiConfig.getMaxConcurrentCalls(), 5, TimeUnit.MINUTES))
+                .build();
+        this.llmGuard = new LlmCallGuard(aiConfig, meterRegistry);
+        this.llmCallsInTransaction = Counter.builder("ai.llm.in_transaction")
+                .description("LLM calls made while a database transaction was open")
+                .register(meterRegistry);
     }
 
     private static final String SYSTEM_PROMPT_CHAT = """
@@ -119,12 +173,54 @@ public class AiServiceImpl implements AiService {
             """;
 
     @Override
-    @Transactional // Добавили транзакцию для работы с Lazy-сущностями
     public ChatResponse chat(ChatRequest request) {
         if (aiConfig.getApiKey() == null || aiConfig.getApiKey().isBlank()) {
             throw new RuntimeException("AI API key is not configured");
         }
 
+        ChatResponse careerTestResponse = careerTestResponse(request);
+        return careerTestResponse != null ? careerTestResponse : callAiForChat(request);
+    }
+
+    @Override
+    public Runnable streamChat(ChatRequest request, ChatStreamListener listener) {
+        if (aiConfig.getApiKey() == null || aiConfig.getApiKey().isBlank()) {
+            throw new RuntimeException("AI API key is not configured");
+        }
+
+        AtomicReference<Call> upstream = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        streamExecutor.execute(() -> {
+            try {
+                ChatResponse careerTestResponse = careerTestResponse(request);
+                listener.onComplete(careerTestResponse != null
+                        ? careerTestResponse
+                        : streamAiForChat(request, listener, upstream, cancelled));
+            } catch (Exception e) {
+                if (cancelled.get()) {
+                    log.debug("Chat stream cancelled by the client");
+                } else {
+                    log.error("Chat stream error", e);
+                    listener.onError(e);
+                }
+            }
+        });
+        return () -> {
+            cancelled.set(true);
+            Call call = upstream.get();
+            if (call != null) {
+                call.cancel();
+            }
+        };
+    }
+
+    @PreDestroy
+    public void stopStreams() {
+        streamExecutor.shutdownNow();
+        refillExecutor.shutdownNow();
+    }
+
+    private ChatResponse careerTestResponse(ChatRequest request) {
         String lastMessage = request.messages().isEmpty() ? "" :
                 request.messages().get(request.messages().size() - 1).content().toLowerCase();
 
@@ -141,7 +237,7 @@ public class AiServiceImpl implements AiService {
             return startCareerTest(sessionId);
         }
 
-        return callAiForChat(request);
+        return null;
     }
 
     private boolean shouldStartTest(String message) {
@@ -155,65 +251,55 @@ public class AiServiceImpl implements AiService {
 
     @Override
     public ChatResponse startCareerTest(String sessionId) {
-        TestSession session = new TestSession(sessionId);
-        activeSessions.put(sessionId, session);
-        cleanOldSessions();
-        return generateNextQuestion(session, "Начало пути. Узнаем базовые интересы.");
+        CareerSession session = CareerSession.start(sessionId, 0);
+        sessionStore.save(session);
+        return generateNextQuestion(session);
     }
 
     @Override
-    @Transactional
     public ChatResponse processTestAnswer(String sessionId, ChatRequest.InteractiveAnswerDto answer, ChatRequest.SessionContextDto context) {
-        TestSession session = activeSessions.get(sessionId);
-
-        if (session == null) {
-            session = new TestSession(sessionId);
-            if (context != null) {
-                session.currentQuestionIndex = context.questionNumber();
-            }
-            activeSessions.put(sessionId, session);
-        }
-
-        updateUserProfile(session, answer);
-        session.currentQuestionIndex++;
-
-        if (session.currentQuestionIndex >= TOTAL_QUESTIONS) {
+        List<String> tags = answerTags(answer);
+        // a session that expired or was never seen by this store resumes from the client's context
+        CareerSession session = sessionStore.update(sessionId, current -> {
+            CareerSession base = current != null
+                    ? current
+                    : CareerSession.start(sessionId, context != null ? context.questionNumber() : 0);
+            return base.withAnswer(tags);
+        });
+
+        if (session.questionIndex() >= TOTAL_QUESTIONS) {
             return generateFinalResults(session);
         }
 
-        return generateNextQuestion(session, null);
+        return generateNextQuestion(session);
     }
 
-    private void updateUserProfile(TestSession session, ChatRequest.InteractiveAnswerDto answer) {
+    private List<String> answerTags(ChatRequest.InteractiveAnswerDto answer) {
+        List<String> tags = new ArrayList<>();
         if (answer.selectedOptionIds() != null) {
-            session.accumulatedProfile.addAll(answer.selectedOptionIds());
+            tags.addAll(answer.selectedOptionIds());
         }
         if (answer.scaleValues() != null) {
             answer.scaleValues().forEach((k, v) -> {
-                if (v > 5) session.accumulatedProfile.add(k + "_high");
+                if (v > 5) tags.add(k + "_high");
             });
         }
+        return tags;
     }
 
-    private ChatResponse generateNextQuestion(TestSession session, String contextOverride) {
+    private ChatResponse generateNextQuestion(CareerSession session) {
         try {
-            String userProfileStr = String.join(", ", session.accumulatedProfile);
-            String usedTypesStr = String.join(", ", session.usedQuestionTypes);
-
-            String prompt = String.format(
-                    "Шаг %d/%d. Профиль пользователя (теги): [%s]. Использованные типы вопросов: [%s]. %s",
-                    session.currentQuestionIndex + 1,
-                    TOTAL_QUESTIONS,
-                    userProfileStr,
-                    usedTypesStr,
-                    contextOverride != null ? contextOverride : "Сгенерируй следующий логичный вопрос."
-            );
-
-            String jsonResponse = callLlm(SYSTEM_PROMPT_GENERATOR, prompt, true);
+            String jsonResponse = questionBank.pick(session.questionIndex(), session.profile(), session.usedQuestionTypes())
+                    .orElse(null);
+            if (jsonResponse == null) {
+                jsonResponse = callLlm(LlmCallGuard.Task.QUESTION, SYSTEM_PROMPT_GENERATOR,
+                        questionPrompt(session.questionIndex(), session.profile(), session.usedQuestionTypes()), true);
+                bankLiveQuestion(session, jsonResponse);
+            }
             JsonNode questionNode = objectMapper.readTree(jsonResponse);
 
             String type = questionNode.get("type").asText();
-            session.usedQuestionTypes.add(type);
+            sessionStore.update(session.sessionId(), current -> current == null ? null : current.withQuestionType(type));
 
             List<ChatResponse.Option> options = new ArrayList<>();
             if (questionNode.has("options")) {
@@ -237,7 +323,7 @@ public class AiServiceImpl implements AiService {
                         .collect(Collectors.toList());
             }
 
-            int percentage = (session.currentQuestionIndex * 100) / TOTAL_QUESTIONS;
+            int percentage = (session.questionIndex() * 100) / TOTAL_QUESTIONS;
 
             ChatResponse.InteractiveElement interactive = new ChatResponse.InteractiveElement(
                     type,
@@ -245,15 +331,15 @@ public class AiServiceImpl implements AiService {
                     questionNode.get("question").asText(),
                     questionNode.has("description") ? questionNode.get("description").asText() : "",
                     options,
-                    new ChatResponse.ProgressInfo(session.currentQuestionIndex + 1, TOTAL_QUESTIONS, questionNode.has("stage") ? questionNode.get("stage").asText() : "Этап " + (session.currentQuestionIndex + 1), percentage),
+                    new ChatResponse.ProgressInfo(session.questionIndex() + 1, TOTAL_QUESTIONS, questionNode.has("stage") ? questionNode.get("stage").asText() : "Этап " + (session.questionIndex() + 1), percentage),
                     null, null, scaleConfig, scaleItems, null
             );
 
             return new ChatResponse(
-                    getEncouragement(session.currentQuestionIndex),
+                    getEncouragement(session.questionIndex()),
                     "assistant",
                     interactive,
-                    new ChatResponse.SessionContextDto(session.sessionId, "test", session.currentQuestionIndex, TOTAL_QUESTIONS, false, null)
+                    new ChatResponse.SessionContextDto(session.sessionId(), "test", session.questionIndex(), TOTAL_QUESTIONS, false, null)
             );
 
         } catch (Exception e) {
@@ -262,12 +348,120 @@ public class AiServiceImpl implements AiService {
         }
     }
 
-    private ChatResponse generateFinalResults(TestSession session) {
+    private String questionPrompt(int step, List<String> profile, Collection<String> usedTypes) {
+        return String.format(
+                "Шаг %d/%d. Профиль пользователя (теги): [%s]. Использованные типы вопросов: [%s]. %s",
+                step + 1,
+                TOTAL_QUESTIONS,
+                String.join(", ", profile),
+                String.join(", ", usedTypes),
+                step == 0 ? "Начало пути. Узнаем базовые интересы." : "Сгенерируй следующий логичный вопрос."
+        );
+    }
+
+    // a live answer is banked for the next user with the same profile, and the miss asks the refill job for more
+    private void bankLiveQuestion(CareerSession session, String json) {
+        questionBank.recordMiss(session.questionIndex(), session.profile());
+        String type = validQuestionType(json);
+        if (type == null) {
+            return;
+        }
+        try {
+            questionBank.add(session.questionIndex(), session.profile(), type, json);
+        } catch (DataAccessException e) {
+            log.warn("Could not add a generated question to the bank", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${application.ai.question-bank.refill-initial-delay:1m}",
+            fixedDelayString = "${application.ai.question-bank.refill-interval:5m}")
+    public void scheduleRefill() {
+        // a trigger that finds the previous cycle still running is skipped
+        if (!refillRunning.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            String userProfileStr = String.join(", ", session.accumulatedProfile);
+            refillExecutor.execute(() -> {
+                try {
+                    refillQuestionBank();
+                } catch (RuntimeException e) {
+                    log.warn("Question bank refill failed", e);
+                } finally {
+                    refillRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refillRunning.set(false);
+        }
+    }
+
+    @Override
+    public int refillQuestionBank() {
+        if (aiConfig.getApiKey() == null || aiConfig.getApiKey().isBlank()) {
+            return 0;
+        }
+        int generated = 0;
+        int calls = 0;
+        for (CareerQuestionBankService.RefillTarget target : questionBank.claimRefillTargets()) {
+            List<String> bankedTypes = new ArrayList<>(target.bankedTypes());
+            for (int i = 0; i < target.missing(); i++) {
+                if (calls++ >= refillMaxCalls) {
+                    // like a failed call, the leases run out and the next cycle continues
+                    log.info("Question bank refill reached its budget of {} calls, added {} questions", refillMaxCalls, generated);
+                    return generated;
+                }
+                String json;
+                try {
+                    json = callLlm(LlmCallGuard.Task.QUESTION, SYSTEM_PROMPT_GENERATOR, questionPrompt(target.step(), target.profileTags(), bankedTypes), true);
+                } catch (IOException e) {
+                    // the lease on the remaining targets runs out and the next cycle picks them up
+                    log.warn("Question bank refill stopped after {} questions", generated, e);
+                    return generated;
+                }
+                String type = validQuestionType(json);
+                if (type == null) {
+                    log.debug("Discarding malformed generated question for step {}", target.step());
+                    continue;
+                }
+                questionBank.add(target.step(), target.profileTags(), type, json);
+                bankedTypes.add(type);
+                generated++;
+            }
+        }
+        if (generated > 0) {
+            log.info("Added {} questions to the career question bank", generated);
+        }
+        return generated;
+    }
+
+    private String validQuestionType(String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            String type = node.path("type").asText();
+            if (!QUESTION_TYPES.contains(type)
+                    || node.path("questionId").asText().isBlank()
+                    || node.path("question").asText().isBlank()
+                    || !node.path("options").isArray()
+                    || node.path("options").isEmpty()) {
+                return null;
+            }
+            for (JsonNode option : node.get("options")) {
+                if (option.path("label").asText().isBlank()) {
+                    return null;
+                }
+            }
+            return type;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private ChatResponse generateFinalResults(CareerSession session) {
+        try {
+            String userProfileStr = String.join(", ", session.profile());
             String prompt = "Пользователь завершил тест. Его профиль (теги ответов): [" + userProfileStr + "]. Проанализируй и дай рекомендации.";
 
-            String jsonResponse = callLlm(SYSTEM_PROMPT_ANALYZER, prompt, true);
+            String jsonResponse = callLlm(LlmCallGuard.Task.ANALYSIS, SYSTEM_PROMPT_ANALYZER, prompt, true);
             JsonNode analysisNode = objectMapper.readTree(jsonResponse);
 
             String analysisText = analysisNode.get("analysisText").asText();
@@ -278,32 +472,10 @@ public class AiServiceImpl implements AiService {
                 }
             }
 
-            List<ChatResponse.UniversityCard> universityCards = new ArrayList<>();
-
-            if (!keywords.isEmpty()) {
-                String[] keywordsArray = keywords.toArray(new String[0]);
-
-                List<Long> programUniIds = programGroupRepository.findUniversityIdsByProgramKeywords(keywordsArray);
-                List<Long> directUniIds = universityRepository.findIdsByKeywords(keywordsArray);
-
-                Set<Long> uniqueIds = new LinkedHashSet<>(programUniIds);
-                uniqueIds.addAll(directUniIds);
-
-                List<Long> targetIds = uniqueIds.stream().limit(6).collect(Collectors.toList());
-
-                if (!targetIds.isEmpty()) {
-                    List<University> universities = universityRepository.findByIdsWithTranslations(targetIds);
-
-                    universityCards = universities.stream()
-                            .map(u -> mapToUniversityCard(u, keywords))
-                            .collect(Collectors.toList());
-                }
-            }
+            List<ChatResponse.UniversityCard> universityCards = readOnlyTransaction.execute(status -> findUniversityCards(keywords));
 
-            if (universityCards.isEmpty()) {
-                List<Long> ids = universityRepository.findAllIds(org.springframework.data.domain.PageRequest.of(0, 5)).getContent();
-                List<University> popular = universityRepository.findByIdsWithTranslations(ids);
-                universityCards = popular.stream().map(u -> mapToUniversityCard(u, List.of())).collect(Collectors.toList());
+            if (universityCards == null || universityCards.isEmpty()) {
+                universityCards = readOnlyTransaction.execute(status -> findPopularUniversityCards());
                 analysisText += "\n\n(К сожалению, по точным критериям ничего не найдено, но вот популярные ВУЗы):";
             }
 
@@ -337,13 +509,13 @@ public class AiServiceImpl implements AiService {
                     )
             );
 
-            activeSessions.remove(session.sessionId);
+            sessionStore.remove(session.sessionId());
 
             return new ChatResponse(
                     "🎉 **Тест завершен!**\n\n" + analysisText,
                     "assistant",
                     resultsInteractive,
-                    new ChatResponse.SessionContextDto(session.sessionId, "complete", TOTAL_QUESTIONS, TOTAL_QUESTIONS, true, null)
+                    new ChatResponse.SessionContextDto(session.sessionId(), "complete", TOTAL_QUESTIONS, TOTAL_QUESTIONS, true, null)
             );
 
         } catch (Exception e) {
@@ -352,6 +524,34 @@ public class AiServiceImpl implements AiService {
         }
     }
 
+    private List<ChatResponse.UniversityCard> findUniversityCards(List<String> keywords) {
+        if (keywords.isEmpty()) {
+            return List.of();
+        }
+        String[] keywordsArray = keywords.toArray(new String[0]);
+
+        List<Long> programUniIds = programGroupRepository.findUniversityIdsByProgramKeywords(keywordsArray);
+        List<Long> directUniIds = universityRepository.findIdsByKeywords(keywordsArray);
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(programUniIds);
+        uniqueIds.addAll(directUniIds);
+
+        List<Long> targetIds = uniqueIds.stream().limit(6).collect(Collectors.toList());
+        if (targetIds.isEmpty()) {
+            return List.of();
+        }
+        return universityRepository.findByIdsWithTranslations(targetIds).stream()
+                .map(u -> mapToUniversityCard(u, keywords))
+                .collect(Collectors.toList());
+    }
+
+    private List<ChatResponse.UniversityCard> findPopularUniversityCards() {
+        List<Long> ids = universityRepository.findAllIds(PageRequest.of(0, 5)).getContent();
+        return universityRepository.findByIdsWithTranslations(ids).stream()
+                .map(u -> mapToUniversityCard(u, List.of()))
+                .collect(Collectors.toList());
+    }
+
     private ChatResponse.UniversityCard mapToUniversityCard(University uni, List<String> matchingKeywords) {
         String lang = "ru";
 
@@ -394,41 +594,102 @@ public class AiServiceImpl implements AiService {
 
     private ChatResponse callAiForChat(ChatRequest request) {
         try {
-            List<Map<String, String>> messages = new ArrayList<>();
-            messages.add(Map.of("role", "system", "content", SYSTEM_PROMPT_CHAT));
+            return chatResponse(callLlmRaw(LlmCallGuard.Task.CHAT, chatMessages(request), false));
+        } catch (Exception e) {
+            log.error("Chat error", e);
+            return new ChatResponse("Извини, я сейчас немного перегружен. Попробуй позже.", "assistant", null, null);
+        }
+    }
 
-            for (ChatRequest.MessageDto msg : request.messages()) {
-                messages.add(Map.of("role", msg.role(), "content", msg.content()));
+    // reads the SSE body line by line and hands each delta on before the next one arrives
+    private ChatResponse streamAiForChat(ChatRequest request, ChatStreamListener listener,
+                                         AtomicReference<Call> upstream, AtomicBoolean cancelled) throws IOException {
+        Map<String, Object> requestBody = completionRequestBody(chatMessages(request), false);
+        requestBody.put("stream", true);
+
+        LlmCallGuard.Permit permit = llmGuard.acquire(LlmCallGuard.Task.CHAT_STREAM);
+        Call call = httpClient.newCall(completionRequest(requestBody));
+        llmGuard.applyDeadline(call, LlmCallGuard.Task.CHAT_STREAM);
+        upstream.set(call);
+        if (cancelled.get()) {
+            call.cancel();
+        }
+        StringBuilder content = new StringBuilder();
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                completeRejected(permit, response);
             }
+            BufferedSource source = response.body().source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring("data:".length()).trim();
+                if (data.equals("[DONE]")) {
+                    break;
+                }
+                String delta = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+                if (!delta.isEmpty()) {
+                    content.append(delta);
+                    try {
+                        listener.onDelta(delta);
+                    } catch (IOException e) {
+                        cancelled.set(true);
+                        throw e;
+                    }
+                }
+            }
+            permit.success();
+        } catch (IOException e) {
+            // closing an unfinished body is not enough when the client is gone, drop the upstream connection too
+            call.cancel();
+            if (cancelled.get()) {
+                permit.release();
+            } else {
+                permit.failure();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+        return chatResponse(content.toString());
+    }
 
-            String responseContent = callLlmRaw(messages, false);
+    private List<Map<String, String>> chatMessages(ChatRequest request) {
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", SYSTEM_PROMPT_CHAT));
 
-            List<ChatResponse.QuickAction> actions = new ArrayList<>();
-            if (shouldStartTest(responseContent.toLowerCase())) {
-                actions.add(new ChatResponse.QuickAction("start_test", "🚀 Начать тест", "🚀", "start_test"));
-            }
+        for (ChatRequest.MessageDto msg : request.messages()) {
+            messages.add(Map.of("role", msg.role(), "content", msg.content()));
+        }
+        return messages;
+    }
 
-            ChatResponse.InteractiveElement interactive = null;
-            if (!actions.isEmpty()) {
-                interactive = new ChatResponse.InteractiveElement("quick_actions", null, null, null, null, null, null, null, null, null, actions);
-            }
+    private ChatResponse chatResponse(String responseContent) {
+        List<ChatResponse.QuickAction> actions = new ArrayList<>();
+        if (shouldStartTest(responseContent.toLowerCase())) {
+            actions.add(new ChatResponse.QuickAction("start_test", "🚀 Начать тест", "🚀", "start_test"));
+        }
 
-            return new ChatResponse(responseContent, "assistant", interactive, null);
-        } catch (Exception e) {
-            log.error("Chat error", e);
-            return new ChatResponse("Извини, я сейчас немного перегружен. Попробуй позже.", "assistant", null, null);
+        ChatResponse.InteractiveElement interactive = null;
+        if (!actions.isEmpty()) {
+            interactive = new ChatResponse.InteractiveElement("quick_actions", null, null, null, null, null, null, null, null, null, actions);
         }
+
+        return new ChatResponse(responseContent, "assistant", interactive, null);
     }
 
-    private String callLlm(String systemPrompt, String userPrompt, boolean jsonMode) throws IOException {
+    private String callLlm(LlmCallGuard.Task task, String systemPrompt, String userPrompt, boolean jsonMode) throws IOException {
         List<Map<String, String>> messages = List.of(
                 Map.of("role", "system", "content", systemPrompt),
                 Map.of("role", "user", "content", userPrompt)
         );
-        return callLlmRaw(messages, jsonMode);
+        return callLlmRaw(task, messages, jsonMode);
     }
 
-    private String callLlmRaw(List<Map<String, String>> messages, boolean jsonMode) throws IOException {
+    private Map<String, Object> completionRequestBody(List<Map<String, String>> messages, boolean jsonMode) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", aiConfig.getModel());
         requestBody.put("messages", messages);
@@ -438,30 +699,56 @@ public class AiServiceImpl implements AiService {
         if (jsonMode && aiConfig.isOpenAiCompatible()) {
             requestBody.put("response_format", Map.of("type", "json_object"));
         }
+        return requestBody;
+    }
 
+    private Request completionRequest(Map<String, Object> requestBody) throws JsonProcessingException {
         String json = objectMapper.writeValueAsString(requestBody);
 
-        Request httpRequest = new Request.Builder()
+        return new Request.Builder()
                 .url(aiConfig.getBaseUrl() + "/chat/completions")
                 .addHeader("Authorization", "Bearer " + aiConfig.getApiKey())
                 .addHeader("Content-Type", "application/json")
                 .post(RequestBody.create(json, MediaType.parse("application/json")))
                 .build();
+    }
 
-        try (Response response = httpClient.newCall(httpRequest).execute()) {
+    private String callLlmRaw(LlmCallGuard.Task task, List<Map<String, String>> messages, boolean jsonMode) throws IOException {
+        Request httpRequest = completionRequest(completionRequestBody(messages, jsonMode));
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            llmCallsInTransaction.increment();
+            log.warn("LLM call made inside a database transaction, its connection stays checked out until the model answers");
+        }
+        LlmCallGuard.Permit permit = llmGuard.acquire(task);
+        Call call = httpClient.newCall(httpRequest);
+        llmGuard.applyDeadline(call, task);
+        String body;
+        try (Response response = call.execute()) {
             if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response);
+                completeRejected(permit, response);
             }
-            String body = response.body().string();
-            JsonNode root = objectMapper.readTree(body);
-            return root.path("choices").path(0).path("message").path("content").asText();
+            body = response.body().string();
+            permit.success();
+        } catch (IOException e) {
+            permit.failure();
+            throw e;
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
         }
+        JsonNode root = objectMapper.readTree(body);
+        return root.path("choices").path(0).path("message").path("content").asText();
     }
 
-    private void cleanOldSessions() {
-        long now = System.currentTimeMillis();
-        long maxAge = TimeUnit.HOURS.toMillis(1);
-        activeSessions.entrySet().removeIf(e -> (now - e.getValue().createdAt) > maxAge);
+    // throttling and server errors count against the provider, other client errors are our own fault
+    private static void completeRejected(LlmCallGuard.Permit permit, Response response) throws IOException {
+        if (response.code() == 429 || response.code() >= 500) {
+            permit.failure();
+        } else {
+            permit.release();
+        }
+        throw new IOException("Unexpected code " + response);
     }
 
     private String getEncouragement(int index) {
@@ -9,11 +9,11 @@ import com.oquga.oquga.entity.Role;
 import com.oquga.oquga.entity.University;
 import com.oquga.oquga.entity.User;
 import com.oquga.oquga.enums.RoleType;
-import com.oquga.oquga.repository.RoleRepository;
 import com.oquga.oquga.repository.UniversityRepository;
 import com.oquga.oquga.repository.UserRepository;
 import com.oquga.oquga.service.AuthenticationService;
 import com.oquga.oquga.service.JwtService;
+import com.oquga.oquga.service.ReferenceDataService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -31,7 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
     private final UniversityRepository universityRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
@@ -44,8 +44,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new RuntimeException("Email already in use");
         }
 
-        Role role = roleRepository.findByName(RoleType.STUDENT)
-                .orElseThrow(() -> new RuntimeException("Role STUDENT not found"));
+        Role role = referenceDataService.getRole(RoleType.STUDENT);
 
         var user = User.builder()
                 .firstName(request.firstName())
@@ -81,8 +80,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         University university = universityRepository.findById(request.universityId())
                 .orElseThrow(() -> new RuntimeException("University not found"));
 
-        Role role = roleRepository.findByName(RoleType.UNIVERSITY_ADMIN)
-                .orElseThrow(() -> new RuntimeException("Role UNIVERSITY_ADMIN not found"));
+        Role role = referenceDataService.getRole(RoleType.UNIVERSITY_ADMIN);
 
         var user = User.builder()
                 .firstName(request.firstName())
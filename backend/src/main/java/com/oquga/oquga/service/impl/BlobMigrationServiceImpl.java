@@ -0,0 +1,163 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.service.BlobMigrationService;
+import com.oquga.oquga.service.StorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off move of the logo and photo blobs that older releases kept in bytea columns into object storage.
+ * Off by default and meant to be switched on for a single release. Each batch is read with a plain query,
+ * uploaded without any transaction or row lock open, and then the keys are recorded and the bytea cleared in
+ * one short transaction. The write only applies to rows that still have no key, so when replicas migrate the
+ * same row or an editor replaced the image meanwhile, the loser deletes its upload instead of overwriting.
+ * A failed upload removes the objects the batch already wrote and leaves the rows for the next start. Once every
+ * environment reports nothing left to migrate, the bytea columns can be dropped.
+ */
+@Service
+@Slf4j
+public class BlobMigrationServiceImpl implements BlobMigrationService {
+
+    record BlobColumn(String table, String blobColumn, String keyColumn, String folder) {
+    }
+
+    private record Blob(long id, byte[] content) {
+    }
+
+    static final List<BlobColumn> COLUMNS = List.of(
+            new BlobColumn("universities", "logo", "logo_key", "universities/logos"),
+            new BlobColumn("leadership", "photo", "photo_key", "universities/leadership"),
+            new BlobColumn("history_events", "photo", "photo_key", "universities/history"),
+            new BlobColumn("faculties", "photo", "photo_key", "universities/faculties"),
+            new BlobColumn("departments", "photo", "photo_key", "universities/departments"),
+            new BlobColumn("educational_program_groups", "photo", "photo_key", "universities/program-groups"),
+            new BlobColumn("educational_programs", "photo", "photo_key", "universities/programs")
+    );
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public BlobMigrationServiceImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    StorageService storageService,
+                                    @Value("${application.storage.blob-migration.enabled:false}") boolean enabled,
+                                    @Value("${application.storage.blob-migration.batch-size:20}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("blob-migration").start(() -> {
+            try {
+                int migrated = migrateAll();
+                if (migrated > 0) {
+                    log.info("Moved {} blobs from the database to object storage", migrated);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Blob migration stopped, the remaining rows are retried on the next start", e);
+            }
+        });
+    }
+
+    @Override
+    public int migrateAll() {
+        int total = 0;
+        for (BlobColumn column : COLUMNS) {
+            int migrated = 0;
+            long afterId = 0;
+            List<Blob> batch;
+            do {
+                batch = readBatch(column, afterId);
+                if (!batch.isEmpty()) {
+                    migrated += migrateBatch(column, batch);
+                    afterId = batch.getLast().id();
+                }
+            } while (batch.size() == batchSize);
+            if (migrated > 0) {
+                log.info("Moved {} blobs from {}.{} to object storage", migrated, column.table(), column.blobColumn());
+            }
+            total += migrated;
+        }
+        return total;
+    }
+
+    // the driver buffers the whole batch, so batch-size bounds how many blobs are held in memory
+    private List<Blob> readBatch(BlobColumn column, long afterId) {
+        String select = "SELECT id, %s FROM %s WHERE %s IS NOT NULL AND %s IS NULL AND id > ? ORDER BY id LIMIT ?"
+                .formatted(column.blobColumn(), column.table(), column.blobColumn(), column.keyColumn());
+        return jdbcTemplate.query(select, (rs, rowNum) -> new Blob(rs.getLong(1), rs.getBytes(2)), afterId, batchSize);
+    }
+
+    private int migrateBatch(BlobColumn column, List<Blob> batch) {
+        String update = "UPDATE %s SET %s = ?, %s = NULL WHERE id = ? AND %s IS NULL AND %s IS NOT NULL"
+                .formatted(column.table(), column.keyColumn(), column.blobColumn(), column.keyColumn(), column.blobColumn());
+
+        List<String> uploaded = new ArrayList<>();
+        try {
+            for (Blob blob : batch) {
+                uploaded.add(storageService.upload(new ByteArrayInputStream(blob.content()), blob.content().length,
+                        contentType(blob.content()), column.folder()));
+            }
+        } catch (RuntimeException e) {
+            uploaded.forEach(storageService::delete);
+            throw e;
+        }
+
+        List<Object[]> keys = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            keys.add(new Object[]{uploaded.get(i), batch.get(i).id()});
+        }
+        int[] updated;
+        try {
+            updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(update, keys));
+        } catch (RuntimeException e) {
+            uploaded.forEach(storageService::delete);
+            throw e;
+        }
+
+        int migrated = 0;
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                migrated++;
+            } else {
+                // another replica or an edit got there first
+                storageService.delete(uploaded.get(i));
+            }
+        }
+        return migrated;
+    }
+
+    private static String contentType(byte[] content) {
+        try (InputStream stream = new ByteArrayInputStream(content)) {
+            String contentType = URLConnection.guessContentTypeFromStream(stream);
+            return contentType != null ? contentType : DEFAULT_CONTENT_TYPE;
+        } catch (IOException e) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+}
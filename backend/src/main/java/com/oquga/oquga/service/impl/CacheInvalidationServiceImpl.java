@@ -0,0 +1,186 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.event.CacheInvalidationEvent;
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.service.CacheInvalidationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Cross-node invalidation bus over Postgres LISTEN/NOTIFY. Changes are announced with pg_notify after the
+ * writing transaction committed, in a transaction of their own, so a node reacting to the notification can only
+ * reload fresh data. A node that dies between the commit and the announcement loses it. Every node
+ * keeps one dedicated connection outside the pool listening on the channel and republishes payloads as
+ * {@link CacheInvalidationEvent}. Notifications sent while the listener was disconnected are lost, so a reconnect
+ * is followed by a full flush of the local caches.
+ * Payloads are "entity:id", followed by ":node" when this service sent them, so a node recognizes its own echo.
+ */
+@Service
+@Slf4j
+public class CacheInvalidationServiceImpl implements CacheInvalidationService {
+
+    static final String CHANNEL = "oquga_invalidation";
+    static final String LISTENER_APPLICATION_NAME = "oquga-invalidation-listener";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollInterval;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+
+    public CacheInvalidationServiceImpl(JdbcTemplate jdbcTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${application.invalidation.enabled:true}") boolean enabled,
+                                        @Value("${spring.datasource.url}") String url,
+                                        @Value("${spring.datasource.username}") String username,
+                                        @Value("${spring.datasource.password}") String password,
+                                        @Value("${application.invalidation.poll-interval:10s}") Duration pollInterval,
+                                        @Value("${application.invalidation.reconnect-delay:2s}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void publish(String entity, Long id) {
+        if (enabled) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, entity + ":" + id + ":" + nodeId);
+        }
+    }
+
+    @TransactionalEventListener
+    @Order(1)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        try {
+            publish(CacheInvalidationEvent.UNIVERSITY, event.universityId());
+        } catch (DataAccessException e) {
+            log.warn("Could not announce change of university {}, other nodes keep it until TTL", event.universityId(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("invalidation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    log.info("Invalidation listener reconnected, flushing local caches");
+                    eventPublisher.publishEvent(CacheInvalidationEvent.all());
+                }
+                connectedBefore = true;
+                receive(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection, retrying in {}", reconnectDelay, e);
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+            if (notifications == null || notifications.length == 0) {
+                // an idle socket can die silently, so check it between notifications
+                if (!connection.isValid((int) Math.max(1, pollInterval.toSeconds()))) {
+                    throw new SQLException("Invalidation listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                dispatch(notification.getParameter());
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split(":", 3);
+        CacheInvalidationEvent event;
+        try {
+            event = new CacheInvalidationEvent(parts[0], Long.parseLong(parts[1]), parts.length == 3 && parts[2].equals(nodeId));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed invalidation payload '{}'", payload);
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Invalidation listener failed for '{}'", payload, e);
+        }
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("ApplicationName", LISTENER_APPLICATION_NAME);
+        return properties;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.service.CareerQuestionBankService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-generated career-test questions keyed by step and profile, so most test steps are answered without
+ * an LLM round-trip. A profile is reduced to its few most frequent answer tags, so users who lean the same way
+ * share a key even when their exact answers differ. The whole bank is held in memory and reloaded periodically,
+ * so a lookup never touches the database. Misses are counted as demand, and the refill job only generates
+ * questions for profiles that were asked for repeatedly, until each has a target number of them. Questions are
+ * rotated by picking at random and retired after a maximum age; profiles nobody asked for expire as well.
+ */
+@Service
+@Slf4j
+public class CareerQuestionBankServiceImpl implements CareerQuestionBankService {
+
+    record BankedQuestion(String type, String payload, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int questionsPerProfile;
+    private final int profileTags;
+    private final int minDemand;
+    private final Duration maxAge;
+    private final Duration demandTtl;
+    private final Duration refillLease;
+    private final int refillBatchSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter added;
+    private final Counter retired;
+
+    private volatile Map<String, List<BankedQuestion>> questions = Map.of();
+
+    public CareerQuestionBankServiceImpl(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${application.ai.question-bank.enabled:true}") boolean enabled,
+                                         @Value("${application.ai.question-bank.per-profile:5}") int questionsPerProfile,
+                                         @Value("${application.ai.question-bank.profile-tags:3}") int profileTags,
+                                         @Value("${application.ai.question-bank.min-demand:2}") int minDemand,
+                                         @Value("${application.ai.question-bank.max-age:7d}") Duration maxAge,
+                                         @Value("${application.ai.question-bank.demand-ttl:3d}") Duration demandTtl,
+                                         @Value("${application.ai.question-bank.refill-interval:5m}") Duration refillLease,
+                                         @Value("${application.ai.question-bank.refill-batch-size:20}") int refillBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.questionsPerProfile = questionsPerProfile;
+        this.profileTags = profileTags;
+        this.minDemand = minDemand;
+        this.maxAge = maxAge;
+        this.demandTtl = demandTtl;
+        this.refillLease = refillLease;
+        this.refillBatchSize = refillBatchSize;
+
+        this.hits = Counter.builder("ai.question_bank.hits")
+                .description("Career-test questions served from the bank")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ai.question_bank.misses")
+                .description("Career-test questions that had to be generated live")
+                .register(meterRegistry);
+        this.added = Counter.builder("ai.question_bank.added")
+                .description("Questions added to the bank")
+                .register(meterRegistry);
+        this.retired = Counter.builder("ai.question_bank.retired")
+                .description("Questions removed from the bank after reaching the maximum age")
+                .register(meterRegistry);
+        Gauge.builder("ai.question_bank.size", this, bank -> bank.questions.values().stream().mapToInt(List::size).sum())
+                .description("Questions currently held in the bank")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<String> pick(int step, List<String> profile, List<String> usedQuestionTypes) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        LocalDateTime freshAfter = LocalDateTime.now().minus(maxAge);
+        List<BankedQuestion> candidates = questions.getOrDefault(key(step, profileKey(profile)), List.of()).stream()
+                .filter(q -> q.createdAt().isAfter(freshAfter) && !usedQuestionTypes.contains(q.type()))
+                .toList();
+        if (candidates.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).payload());
+    }
+
+    @Override
+    public void recordMiss(int step, List<String> profile) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // GREATEST keeps the permanent demand for the first step pinned at 'infinity'
+            jdbcTemplate.update("""
+                    INSERT INTO career_question_demand (step, profile_key, profile_tags)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (step, profile_key) DO UPDATE
+                    SET last_requested_at = GREATEST(career_question_demand.last_requested_at, LOCALTIMESTAMP),
+                        request_count = LEAST(career_question_demand.request_count::BIGINT + 1, 2147483647)
+                    """, step, profileKey(profile), coarsen(profile).toArray(String[]::new));
+        } catch (DataAccessException e) {
+            log.warn("Could not record question bank miss for step {}", step, e);
+        }
+    }
+
+    @Override
+    public void add(int step, List<String> profile, String questionType, String payload) {
+        if (!enabled) {
+            return;
+        }
+        String profileKey = profileKey(profile);
+        jdbcTemplate.update("INSERT INTO career_questions (step, profile_key, question_type, payload) VALUES (?, ?, ?, ?)",
+                step, profileKey, questionType, payload);
+        added.increment();
+
+        // visible on this node at once, other nodes pick it up on their next reload
+        synchronized (this) {
+            Map<String, List<BankedQuestion>> updated = new HashMap<>(questions);
+            List<BankedQuestion> forKey = new ArrayList<>(updated.getOrDefault(key(step, profileKey), List.of()));
+            forKey.add(new BankedQuestion(questionType, payload, LocalDateTime.now()));
+            updated.put(key(step, profileKey), List.copyOf(forKey));
+            questions = Map.copyOf(updated);
+        }
+    }
+
+    @Override
+    public List<RefillTarget> claimRefillTargets() {
+        if (!enabled) {
+            return List.of();
+        }
+        int retiredQuestions = jdbcTemplate.update(
+                "DELETE FROM career_questions WHERE created_at < LOCALTIMESTAMP - make_interval(secs => ?)",
+                maxAge.toSeconds());
+        retired.increment(retiredQuestions);
+        jdbcTemplate.update("DELETE FROM career_question_demand WHERE last_requested_at < LOCALTIMESTAMP - make_interval(secs => ?)",
+                demandTtl.toSeconds());
+
+        // the lease is taken in one short transaction, generation happens afterwards without holding rows
+        List<RefillTarget> targets = transactionTemplate.execute(status -> jdbcTemplate.query("""
+                        WITH claimed AS (
+                            SELECT d.step, d.profile_key
+                            FROM career_question_demand d
+                            WHERE d.next_refill_at <= LOCALTIMESTAMP
+                              AND d.request_count >= ?
+                              AND (SELECT count(*) FROM career_questions q
+                                   WHERE q.step = d.step AND q.profile_key = d.profile_key) < ?
+                            ORDER BY d.last_requested_at DESC
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        UPDATE career_question_demand d
+                        SET next_refill_at = LOCALTIMESTAMP + make_interval(secs => ?)
+                        FROM claimed
+                        WHERE d.step = claimed.step AND d.profile_key = claimed.profile_key
+                        RETURNING d.step, d.profile_tags,
+                                  ARRAY(SELECT q.question_type FROM career_questions q
+                                        WHERE q.step = d.step AND q.profile_key = d.profile_key) AS banked_types
+                        """,
+                (rs, rowNum) -> {
+                    List<String> bankedTypes = toList(rs.getArray("banked_types"));
+                    return new RefillTarget(rs.getInt("step"), toList(rs.getArray("profile_tags")), bankedTypes,
+                            questionsPerProfile - bankedTypes.size());
+                },
+                minDemand, questionsPerProfile, refillBatchSize, refillLease.toSeconds()));
+
+        if (retiredQuestions > 0) {
+            reload();
+        }
+        return targets;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.ai.question-bank.reload-interval:1m}")
+    public int reload() {
+        if (!enabled) {
+            return 0;
+        }
+        Map<String, List<BankedQuestion>> loaded = new HashMap<>();
+        int[] count = {0};
+        try {
+            jdbcTemplate.query("""
+                    SELECT step, profile_key, question_type, payload, created_at
+                    FROM career_questions
+                    WHERE created_at >= LOCALTIMESTAMP - make_interval(secs => ?)
+                    """, rs -> {
+                loaded.computeIfAbsent(key(rs.getInt("step"), rs.getString("profile_key")), k -> new ArrayList<>())
+                        .add(new BankedQuestion(rs.getString("question_type"), rs.getString("payload"),
+                                rs.getTimestamp("created_at").toLocalDateTime()));
+                count[0]++;
+            }, maxAge.toSeconds());
+        } catch (DataAccessException e) {
+            log.warn("Could not reload the question bank, keeping the current one", e);
+            return questions.values().stream().mapToInt(List::size).sum();
+        }
+        Map<String, List<BankedQuestion>> snapshot = new HashMap<>();
+        loaded.forEach((key, list) -> snapshot.put(key, List.copyOf(list)));
+        synchronized (this) {
+            questions = Map.copyOf(snapshot);
+        }
+        return count[0];
+    }
+
+    private String profileKey(List<String> profile) {
+        List<String> tags = coarsen(profile);
+        if (tags.isEmpty()) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.join("\n", tags).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // the most frequent tags win, ties go to the alphabetically first, and the result is sorted
+    private List<String> coarsen(List<String> profile) {
+        Map<String, Long> counts = profile.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(profileTags)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    private static String key(int step, String profileKey) {
+        return step + ":" + profileKey;
+    }
+
+    private static List<String> toList(Array array) throws SQLException {
+        return array == null ? List.of() : Arrays.asList((String[]) array.getArray());
+    }
+}
@@ -0,0 +1,102 @@
+package com.oquga.oquga.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oquga.oquga.service.CatalogCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Shared Redis tier for catalog read responses with a small per-node near-cache in front of it.
+ * Values are Smile-encoded DTOs stored under keys that embed the database version the controller sends
+ * as ETag, so a body is only ever served with the version it was cached under. A write moves the version
+ * and every replica stops reading the old entries without deleting them; the orphans expire by TTL.
+ * Which changes move a version is decided by the version queries: view-count flushes move the detail
+ * version only, catalog pages and university summaries accept a stale count.
+ * Any Redis failure degrades to loading from the database.
+ */
+@Service
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    // bump when cached DTO shapes or the key layout change incompatibly
+    private static final String PREFIX = "oquga:catalog:3:";
+
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+    private final boolean enabled;
+    private final Duration catalogTtl;
+    private final Duration universityTtl;
+    private final Cache<String, Object> nearCache;
+
+    public CatalogCacheServiceImpl(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                                   @Value("${application.cache.redis.enabled:false}") boolean enabled,
+                                   @Value("${application.cache.redis.catalog-ttl:5m}") Duration catalogTtl,
+                                   @Value("${application.cache.redis.university-ttl:30m}") Duration universityTtl,
+                                   @Value("${application.cache.redis.near-cache-size:1000}") long nearCacheSize) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.enabled = enabled;
+        this.catalogTtl = catalogTtl;
+        this.universityTtl = universityTtl;
+        // keys embed the version, so near-cache entries never need explicit invalidation
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(catalogTtl)
+                .build();
+    }
+
+    @Override
+    public <T> T getCatalogEntry(long catalogVersion, String key, Class<T> type, Supplier<T> loader) {
+        return get(PREFIX + "c:" + catalogVersion + ":" + key, catalogTtl, type, loader);
+    }
+
+    @Override
+    public <T> T getUniversityEntry(Long universityId, String version, String key, Class<T> type, Supplier<T> loader) {
+        return get(PREFIX + "u:" + universityId + ":" + version + ":" + key, universityTtl, type, loader);
+    }
+
+    private <T> T get(String versionedKey, Duration ttl, Class<T> type, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Object local = nearCache.getIfPresent(versionedKey);
+        if (type.isInstance(local)) {
+            return type.cast(local);
+        }
+
+        T value = readRemote(versionedKey, type);
+        if (value == null) {
+            value = loader.get();
+            writeRemote(versionedKey, value, ttl);
+        }
+        nearCache.put(versionedKey, value);
+        return value;
+    }
+
+    private <T> T readRemote(String versionedKey, Class<T> type) {
+        try {
+            byte[] bytes = binaryRedisTemplate.opsForValue().get(versionedKey);
+            return bytes == null ? null : smileMapper.readValue(bytes, type);
+        } catch (DataAccessException | JacksonException e) {
+            log.debug("Could not read catalog cache entry {}", versionedKey, e);
+            return null;
+        }
+    }
+
+    private void writeRemote(String versionedKey, Object value, Duration ttl) {
+        try {
+            binaryRedisTemplate.opsForValue().set(versionedKey, smileMapper.writeValueAsBytes(value), ttl);
+        } catch (DataAccessException | JacksonException e) {
+            log.debug("Could not write catalog cache entry {}", versionedKey, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.oquga.oquga.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oquga.oquga.service.CareerSessionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-node session store: a bounded Caffeine cache that expires sessions after a period without access.
+ * Sessions are lost on restart and are not visible to other replicas, see {@link RedisCareerSessionStore}.
+ */
+@Service
+@ConditionalOnProperty(name = "application.ai.sessions.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCareerSessionStore implements CareerSessionStore {
+
+    private final Cache<String, CareerSession> sessions;
+
+    @Autowired
+    public InMemoryCareerSessionStore(@Value("${application.ai.sessions.max-size:10000}") long maxSize,
+                                      @Value("${application.ai.sessions.ttl:1h}") Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker());
+    }
+
+    InMemoryCareerSessionStore(long maxSize, Duration ttl, Ticker ticker) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .ticker(ticker)
+                // evicts idle sessions on time instead of waiting for the next access to the cache
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @Override
+    public Optional<CareerSession> get(String sessionId) {
+        return Optional.ofNullable(sessions.getIfPresent(sessionId));
+    }
+
+    @Override
+    public void save(CareerSession session) {
+        sessions.put(session.sessionId(), session);
+    }
+
+    @Override
+    public CareerSession update(String sessionId, UnaryOperator<CareerSession> update) {
+        return sessions.asMap().compute(sessionId, (id, current) -> update.apply(current));
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    void cleanUp() {
+        sessions.cleanUp();
+    }
+}
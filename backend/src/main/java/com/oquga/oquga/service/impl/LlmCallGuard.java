@@ -0,0 +1,289 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.config.AiConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failure isolation for LLM calls, so a degraded provider costs callers milliseconds instead of full timeouts.
+ * Blocking calls pass an AIMD concurrency limit: each fast success raises it by 1/limit up to
+ * ai.max-concurrent-calls, and each failure or slow success cuts it by the backoff ratio. A success counts as slow
+ * when it used more than a share of its own task's deadline, so a long analysis is not judged by the chat budget.
+ * Streams have their own semaphore and leave the limit alone. Every call also passes
+ * a count-based circuit breaker. When the failure rate over the last window crosses the threshold, the breaker
+ * opens and calls are refused without touching the network. After the open duration a few trial calls decide
+ * whether it closes again. Refusals surface as IOException, which the callers already turn into fallback answers.
+ */
+@Slf4j
+class LlmCallGuard {
+
+    enum Task {
+        CHAT, QUESTION, ANALYSIS, CHAT_STREAM
+    }
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final AiConfig aiConfig;
+    private final AiConfig.Limiter limiterConfig;
+    private final AiConfig.Breaker breakerConfig;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private final Semaphore streams;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter shortCircuited;
+    private final Counter failures;
+
+    LlmCallGuard(AiConfig aiConfig, MeterRegistry meterRegistry) {
+        this.aiConfig = aiConfig;
+        this.limiterConfig = aiConfig.getLimiter();
+        this.breakerConfig = aiConfig.getBreaker();
+        this.limit = aiConfig.getMaxConcurrentCalls();
+        this.streams = new Semaphore(aiConfig.getMaxConcurrentStreams());
+        this.window = new boolean[breakerConfig.getWindowSize()];
+        this.meterRegistry = meterRegistry;
+
+        this.rejected = Counter.builder("ai.llm.rejected")
+                .description("LLM calls refused because the concurrency limit was reached")
+                .register(meterRegistry);
+        this.shortCircuited = Counter.builder("ai.llm.short_circuited")
+                .description("LLM calls refused because the circuit breaker was open")
+                .register(meterRegistry);
+        this.failures = Counter.builder("ai.llm.failures")
+                .description("LLM calls that failed, timed out or were answered with 429/5xx")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.in_flight", inFlight, AtomicInteger::get)
+                .description("LLM calls currently waiting for the model")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.limit", this, guard -> guard.limit)
+                .description("Current adaptive limit on concurrent LLM calls")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.streams", streams, s -> aiConfig.getMaxConcurrentStreams() - s.availablePermits())
+                .description("Chat answers currently being streamed from the model")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.breaker.state", this, guard -> guard.state().ordinal())
+                .description("LLM circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a call or refuses it at once. The returned permit must be completed exactly once.
+     */
+    Permit acquire(Task task) throws IOException {
+        boolean trial;
+        synchronized (this) {
+            if (!allowByBreaker()) {
+                shortCircuited.increment();
+                throw new IOException("LLM circuit breaker is open");
+            }
+            trial = state == State.HALF_OPEN;
+        }
+        boolean admitted = task == Task.CHAT_STREAM ? streams.tryAcquire() : tryAcquireSlot();
+        if (!admitted) {
+            if (trial) {
+                synchronized (this) {
+                    halfOpenInFlight--;
+                }
+            }
+            rejected.increment();
+            throw new IOException(task == Task.CHAT_STREAM ? "Too many concurrent chat streams" : "Too many concurrent LLM calls");
+        }
+        return new Permit(task, trial);
+    }
+
+    /**
+     * Sets the whole-call deadline for the task; streamed answers keep only the client's read timeout.
+     */
+    void applyDeadline(Call call, Task task) {
+        call.timeout().timeout(deadline(task).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Duration deadline(Task task) {
+        return switch (task) {
+            case CHAT -> aiConfig.getChatTimeout();
+            case QUESTION -> aiConfig.getQuestionTimeout();
+            case ANALYSIS -> aiConfig.getAnalysisTimeout();
+            case CHAT_STREAM -> Duration.ZERO;
+        };
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= breakerConfig.getOpenDuration().toNanos()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // callers hold the monitor
+    private boolean allowByBreaker() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < breakerConfig.getOpenDuration().toNanos()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            log.info("LLM circuit breaker half-open, letting trial calls through");
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= breakerConfig.getHalfOpenCalls()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    private synchronized void onOutcome(Task task, boolean failed, boolean slow, boolean trial) {
+        if (task != Task.CHAT_STREAM) {
+            if (failed || slow) {
+                limit = Math.max(limiterConfig.getMinLimit(), limit * limiterConfig.getBackoffRatio());
+            } else {
+                limit = Math.min(aiConfig.getMaxConcurrentCalls(), limit + 1.0 / limit);
+            }
+        }
+
+        if (trial) {
+            halfOpenInFlight--;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failed) {
+                open();
+            } else {
+                state = State.CLOSED;
+                resetWindow();
+                log.info("LLM circuit breaker closed");
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // outcomes of calls admitted before the breaker opened say nothing new
+            return;
+        }
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+
+        if (windowCount >= breakerConfig.getMinimumCalls()
+                && windowFailures * 100 >= breakerConfig.getFailureRateThreshold() * windowCount) {
+            open();
+        }
+    }
+
+    private synchronized void onNeutral(boolean trial) {
+        if (trial) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+        log.warn("LLM circuit breaker opened, failing calls fast for {}", breakerConfig.getOpenDuration());
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    class Permit {
+
+        private final Task task;
+        private final boolean trial;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(Task task, boolean trial) {
+            this.task = task;
+            this.trial = trial;
+        }
+
+        void success() {
+            complete("success", () -> {
+                // a stream's duration is the answer's length, not a sign of provider trouble
+                boolean slow = task != Task.CHAT_STREAM
+                        && System.nanoTime() - startedAt > deadline(task).toNanos() * limiterConfig.getSlowCallRatio();
+                onOutcome(task, false, slow, trial);
+            });
+        }
+
+        void failure() {
+            complete("failure", () -> {
+                failures.increment();
+                onOutcome(task, true, false, trial);
+            });
+        }
+
+        /**
+         * Ends the call without judging the provider, e.g. a client-side error or a cancelled stream.
+         */
+        void release() {
+            complete("released", () -> onNeutral(trial));
+        }
+
+        private void complete(String outcome, Runnable record) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            if (task == Task.CHAT_STREAM) {
+                streams.release();
+            } else {
+                inFlight.decrementAndGet();
+            }
+            Timer.builder("ai.llm.calls")
+                    .description("Duration of LLM round-trips")
+                    .tag("task", task.name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            record.run();
+        }
+    }
+}
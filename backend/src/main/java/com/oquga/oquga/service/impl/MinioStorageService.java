@@ -2,6 +2,7 @@ package com.oquga.oquga.service.impl;
 
 import com.oquga.oquga.service.StorageService;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -28,6 +35,9 @@ public class MinioStorageService implements StorageService {
     @Value("${s3.public-url:}")
     private String publicUrl;
 
+    @Value("${s3.endpoint}")
+    private String endpoint;
+
     @PostConstruct
     public void init() {
         createBucketIfNotExists();
@@ -51,14 +61,7 @@ public class MinioStorageService implements StorageService {
         }
 
         try (InputStream inputStream = file.getInputStream()) {
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .stream(inputStream, file.getSize(), -1)
-                            .contentType(contentType)
-                            .build()
-            );
+            putObject(objectName, inputStream, file.getSize(), contentType);
         } catch (Exception e) {
             log.error("Failed to upload file to MinIO: {}", objectName, e);
             throw new RuntimeException("Failed to upload file", e);
@@ -68,6 +71,92 @@ public class MinioStorageService implements StorageService {
         return objectName;
     }
 
+    @Override
+    public String upload(InputStream content, long size, String contentType, String folder) {
+        String objectName = (folder + "/" + UUID.randomUUID() + extensionFor(contentType)).replaceAll("//+", "/");
+
+        try {
+            putObject(objectName, content, size, contentType);
+        } catch (Exception e) {
+            log.error("Failed to upload stream to MinIO: {}", objectName, e);
+            throw new RuntimeException("Failed to upload file", e);
+        }
+
+        log.debug("Stream uploaded to MinIO: {}", objectName);
+        return objectName;
+    }
+
+    @Override
+    public void put(String objectName, InputStream content, long size, String contentType) {
+        try {
+            putObject(objectName, content, size, contentType);
+        } catch (Exception e) {
+            log.error("Failed to put object to MinIO: {}", objectName, e);
+            throw new RuntimeException("Failed to upload file", e);
+        }
+    }
+
+    @Override
+    public PresignedUpload presignUpload(String objectName, String contentType, long maxSize, Duration ttl) {
+        ZonedDateTime expiresAt = ZonedDateTime.now(ZoneOffset.UTC).plus(ttl);
+        PostPolicy policy = new PostPolicy(bucketName, expiresAt);
+        policy.addEqualsCondition("key", objectName);
+        policy.addEqualsCondition("Content-Type", contentType);
+        policy.addContentLengthRangeCondition(1, maxSize);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("key", objectName);
+        fields.put("Content-Type", contentType);
+        try {
+            fields.putAll(minioClient.getPresignedPostFormData(policy));
+        } catch (Exception e) {
+            log.error("Failed to presign upload for: {}", objectName, e);
+            throw new RuntimeException("Failed to prepare upload", e);
+        }
+
+        // the policy signature does not cover the host, so the browser can post to the public address
+        String baseUrl = publicUrl != null && !publicUrl.isBlank() ? publicUrl : endpoint;
+        return new PresignedUpload(baseUrl.replaceAll("/+$", "") + "/" + bucketName, fields, expiresAt.toInstant());
+    }
+
+    @Override
+    public long getSize(String objectName) {
+        try {
+            return minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build()
+            ).size();
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new IllegalArgumentException("File not found: " + objectName);
+            }
+            log.error("Failed to stat file in MinIO: {}", objectName, e);
+            throw new RuntimeException("Failed to get file", e);
+        } catch (Exception e) {
+            log.error("Failed to stat file in MinIO: {}", objectName, e);
+            throw new RuntimeException("Failed to get file", e);
+        }
+    }
+
+    @Override
+    public byte[] readHead(String objectName, int length) {
+        try (InputStream stream = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .offset(0L)
+                        .length((long) length)
+                        .build()
+        )) {
+            return stream.readNBytes(length);
+        } catch (Exception e) {
+            log.error("Failed to read file from MinIO: {}", objectName, e);
+            throw new RuntimeException("Failed to get file", e);
+        }
+    }
+
     @Override
     public void delete(String objectName) {
         if (objectName == null || objectName.isBlank()) return;
@@ -124,6 +213,27 @@ public class MinioStorageService implements StorageService {
         }
     }
 
+    private void putObject(String objectName, InputStream content, long size, String contentType) throws Exception {
+        minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(content, size, -1)
+                        .contentType(contentType)
+                        .build()
+        );
+    }
+
+    private static String extensionFor(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            case "image/webp" -> ".webp";
+            default -> "";
+        };
+    }
+
     private void createBucketIfNotExists() {
         try {
             boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
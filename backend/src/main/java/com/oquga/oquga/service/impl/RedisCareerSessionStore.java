@@ -0,0 +1,97 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.service.CareerSessionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shared session store in Redis, so a career test can continue on any replica and survives rolling restarts.
+ * Each session is one JSON value whose TTL is renewed on every access. Updates are optimistic: the key is
+ * WATCHed while the new state is computed and written in MULTI/EXEC, and a concurrent write to the same
+ * session aborts the transaction and retries it on the fresh value.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "application.ai.sessions.store", havingValue = "redis")
+public class RedisCareerSessionStore implements CareerSessionStore {
+
+    private static final String KEY_PREFIX = "oquga:career-session:";
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration ttl;
+
+    public RedisCareerSessionStore(StringRedisTemplate redisTemplate,
+                                   JsonMapper jsonMapper,
+                                   @Value("${application.ai.sessions.ttl:1h}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<CareerSession> get(String sessionId) {
+        return Optional.ofNullable(redisTemplate.opsForValue().getAndExpire(KEY_PREFIX + sessionId, ttl))
+                .map(this::read);
+    }
+
+    @Override
+    public void save(CareerSession session) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + session.sessionId(), write(session), ttl);
+    }
+
+    @Override
+    public CareerSession update(String sessionId, UnaryOperator<CareerSession> update) {
+        String key = KEY_PREFIX + sessionId;
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            CareerSession[] written = new CareerSession[1];
+            List<Object> results = redisTemplate.execute(new SessionCallback<>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public List<Object> execute(RedisOperations operations) {
+                    operations.watch(key);
+                    String current = (String) operations.opsForValue().get(key);
+                    written[0] = update.apply(current == null ? null : read(current));
+                    operations.multi();
+                    if (written[0] == null) {
+                        operations.delete(key);
+                    } else {
+                        operations.opsForValue().set(key, write(written[0]), ttl);
+                    }
+                    return operations.exec();
+                }
+            });
+            // an aborted EXEC returns no results: another replica changed the session in between
+            if (results != null && !results.isEmpty()) {
+                return written[0];
+            }
+            log.debug("Career session {} changed concurrently, retrying update (attempt {})", sessionId, attempt);
+        }
+        throw new IllegalStateException("Career session " + sessionId + " is being updated concurrently, try again");
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        redisTemplate.delete(KEY_PREFIX + sessionId);
+    }
+
+    private CareerSession read(String json) {
+        return jsonMapper.readValue(json, CareerSession.class);
+    }
+
+    private String write(CareerSession session) {
+        return jsonMapper.writeValueAsString(session);
+    }
+}
@@ -0,0 +1,95 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.entity.Language;
+import com.oquga.oquga.entity.Role;
+import com.oquga.oquga.enums.RoleType;
+import com.oquga.oquga.event.CacheInvalidationEvent;
+import com.oquga.oquga.repository.LanguageRepository;
+import com.oquga.oquga.repository.RoleRepository;
+import com.oquga.oquga.service.ReferenceDataService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Languages and roles are seeded by migrations and change only through them, so their ids are read at startup
+ * and kept as one immutable snapshot. Database triggers announce any change to either table on the invalidation
+ * bus, and every node then swaps in a fresh snapshot and drops the tables' second-level cache regions.
+ * Lookups hand out {@link EntityManager#getReference} proxies: writing a translation or a user costs no select,
+ * and a proxy that does get initialized is served from the second-level cache.
+ */
+@Service
+@Slf4j
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+    private record Snapshot(Map<String, Long> languageIds, Map<RoleType, Integer> roleIds, List<String> languageCodes) {
+    }
+
+    private final EntityManager entityManager;
+    private final LanguageRepository languageRepository;
+    private final RoleRepository roleRepository;
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataServiceImpl(EntityManager entityManager,
+                                    LanguageRepository languageRepository,
+                                    RoleRepository roleRepository) {
+        this.entityManager = entityManager;
+        this.languageRepository = languageRepository;
+        this.roleRepository = roleRepository;
+        this.snapshot = load();
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!event.concerns(CacheInvalidationEvent.REFERENCE)) {
+            return;
+        }
+        try {
+            entityManager.getEntityManagerFactory().getCache().evict(Language.class);
+            entityManager.getEntityManagerFactory().getCache().evict(Role.class);
+            snapshot = load();
+        } catch (Exception e) {
+            log.warn("Could not reload reference data after invalidation {}, keeping the previous one", event, e);
+        }
+    }
+
+    @Override
+    public Language getLanguage(String code) {
+        Long id = snapshot.languageIds().get(code);
+        if (id == null) {
+            throw new RuntimeException("Language not found: " + code);
+        }
+        return entityManager.getReference(Language.class, id);
+    }
+
+    @Override
+    public Role getRole(RoleType name) {
+        Integer id = snapshot.roleIds().get(name);
+        if (id == null) {
+            throw new IllegalStateException("Role " + name + " not found. Check Flyway migrations.");
+        }
+        return entityManager.getReference(Role.class, id);
+    }
+
+    @Override
+    public List<String> getLanguageCodes() {
+        return snapshot.languageCodes();
+    }
+
+    private Snapshot load() {
+        List<Language> languages = languageRepository.findAll(Sort.by("sortOrder", "id"));
+        Snapshot loaded = new Snapshot(
+                languages.stream().collect(Collectors.toUnmodifiableMap(Language::getCode, Language::getId)),
+                roleRepository.findAll().stream().collect(Collectors.toUnmodifiableMap(Role::getName, Role::getId)),
+                languages.stream().map(Language::getCode).toList());
+
+        log.info("Loaded reference data: languages {}, roles {}", loaded.languageCodes(), loaded.roleIds().keySet());
+        return loaded;
+    }
+}
@@ -0,0 +1,229 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.res.SuggestionResponse;
+import com.oquga.oquga.enums.SuggestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable prefix index for search suggestions.
+ * Every word start of every entry is a key ("назарбаев университет", "университет"). Keys are kept per language
+ * in sorted arrays of (entry, offset) references into the normalized texts, so no suffix is copied, and a lookup
+ * is a binary search followed by a short scan. Leading words have their own array, so matches that start with
+ * the query are always seen before matches further inside a text.
+ */
+final class SuggestionIndex {
+
+    static final SuggestionIndex EMPTY = build(List.of());
+
+    private static final int MAX_MATCHED_ENTRIES = 500;
+
+    record Entry(SuggestionType type, String text, String lang, Long universityId) {
+    }
+
+    private final Entry[] entries;
+    private final String[] normalizedTexts;
+    private final Map<String, Keys> keysByLang;
+    private final int size;
+
+    private SuggestionIndex(Entry[] entries, String[] normalizedTexts, Map<String, Keys> keysByLang, int size) {
+        this.entries = entries;
+        this.normalizedTexts = normalizedTexts;
+        this.keysByLang = keysByLang;
+        this.size = size;
+    }
+
+    static SuggestionIndex build(List<Entry> source) {
+        // entries are ordered by normalized text, so ranking can break ties on the entry index alone
+        Map<Entry, String> normalizedByEntry = new LinkedHashMap<>();
+        for (Entry entry : source) {
+            normalizedByEntry.putIfAbsent(entry, normalize(entry.text()));
+        }
+        List<Map.Entry<Entry, String>> ordered = new ArrayList<>(normalizedByEntry.entrySet());
+        ordered.sort(Map.Entry.comparingByValue());
+
+        Entry[] entries = new Entry[ordered.size()];
+        String[] normalizedTexts = new String[ordered.size()];
+        Map<String, List<Long>> leading = new HashMap<>();
+        Map<String, List<Long>> inner = new HashMap<>();
+
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = ordered.get(i).getKey();
+            String normalized = ordered.get(i).getValue();
+            normalizedTexts[i] = normalized;
+            for (int pos = 0; pos < normalized.length(); pos++) {
+                if (pos == 0) {
+                    leading.computeIfAbsent(entries[i].lang(), lang -> new ArrayList<>()).add(key(i, pos));
+                } else if (normalized.charAt(pos - 1) == ' ') {
+                    inner.computeIfAbsent(entries[i].lang(), lang -> new ArrayList<>()).add(key(i, pos));
+                }
+            }
+        }
+
+        Comparator<Long> order = (a, b) -> compareSuffixes(normalizedTexts, a, b);
+        Map<String, Keys> keysByLang = new HashMap<>();
+        int size = 0;
+        for (String lang : leading.keySet()) {
+            long[] leadingKeys = sorted(leading.get(lang), order);
+            long[] innerKeys = sorted(inner.getOrDefault(lang, List.of()), order);
+            keysByLang.put(lang, new Keys(leadingKeys, innerKeys));
+            size += leadingKeys.length + innerKeys.length;
+        }
+        return new SuggestionIndex(entries, normalizedTexts, keysByLang, size);
+    }
+
+    /**
+     * Matches whose text starts with the query come first, then shorter texts. At most
+     * {@value #MAX_MATCHED_ENTRIES} distinct entries per language are ranked, leading-word matches before the rest.
+     */
+    List<SuggestionResponse> find(String query, String lang, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<Keys> scanned;
+        if (lang == null) {
+            scanned = List.copyOf(keysByLang.values());
+        } else {
+            Keys keys = keysByLang.get(lang);
+            scanned = keys == null ? List.of() : List.of(keys);
+        }
+
+        // entries of different languages never coincide, so every language gets a budget of its own
+        Matches matches = new Matches(entries.length);
+        for (Keys keys : scanned) {
+            int budget = matches.size + MAX_MATCHED_ENTRIES;
+            collect(keys.leading(), prefix, matches, budget);
+            collect(keys.inner(), prefix, matches, budget);
+        }
+        long[] ranked = Arrays.copyOf(matches.ranks, matches.size);
+        Arrays.sort(ranked);
+
+        // the same name in several languages collapses into one suggestion
+        Set<SuggestionResponse> result = new LinkedHashSet<>();
+        for (long rank : ranked) {
+            if (result.size() == limit) {
+                break;
+            }
+            int i = (int) rank;
+            result.add(new SuggestionResponse(entries[i].type(), entries[i].text(), entries[i].universityId()));
+        }
+        return List.copyOf(result);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void collect(long[] keys, String prefix, Matches matches, int budget) {
+        for (int i = lowerBound(keys, prefix); i < keys.length && matches.size < budget; i++) {
+            int entry = entryIndex(keys[i]);
+            if (!normalizedTexts[entry].startsWith(prefix, offset(keys[i]))) {
+                return;
+            }
+            if (!matches.seen.get(entry)) {
+                matches.seen.set(entry);
+                matches.add(rank(entry, offset(keys[i]) == 0));
+            }
+        }
+    }
+
+    // sorts leading matches first, then shorter texts, then by text through the entry order
+    private long rank(int entry, boolean leading) {
+        return (leading ? 0L : 1L << 62) | (long) normalizedTexts[entry].length() << 32 | entry;
+    }
+
+    private int lowerBound(long[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareSuffix(normalizedTexts[entryIndex(keys[mid])], offset(keys[mid]), prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT)
+                .replace('ё', 'е')
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private static long key(int entryIndex, int offset) {
+        return (long) entryIndex << 32 | offset;
+    }
+
+    private static int entryIndex(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int offset(long key) {
+        return (int) key;
+    }
+
+    private static long[] sorted(List<Long> keys, Comparator<Long> order) {
+        keys.sort(order.thenComparing(Comparator.naturalOrder()));
+        return keys.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int compareSuffixes(String[] texts, long a, long b) {
+        return compareSuffix(texts[entryIndex(a)], offset(a), texts[entryIndex(b)], offset(b));
+    }
+
+    private static int compareSuffix(String text, int offset, String prefix) {
+        return compareSuffix(text, offset, prefix, 0);
+    }
+
+    // compares the two suffixes in String.compareTo order without copying them
+    private static int compareSuffix(String text, int offset, String other, int otherOffset) {
+        int length = Math.min(text.length() - offset, other.length() - otherOffset);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(offset + i);
+            char o = other.charAt(otherOffset + i);
+            if (c != o) {
+                return c - o;
+            }
+        }
+        return (text.length() - offset) - (other.length() - otherOffset);
+    }
+
+    private record Keys(long[] leading, long[] inner) {
+    }
+
+    private static final class Matches {
+
+        private final BitSet seen;
+        private long[] ranks = new long[64];
+        private int size;
+
+        private Matches(int entries) {
+            this.seen = new BitSet(entries);
+        }
+
+        private void add(long rank) {
+            if (size == ranks.length) {
+                ranks = Arrays.copyOf(ranks, size * 2);
+            }
+            ranks[size++] = rank;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.res.SuggestionResponse;
+import com.oquga.oquga.enums.SuggestionType;
+import com.oquga.oquga.event.CacheInvalidationEvent;
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.SuggestionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves suggestions from an in-memory {@link SuggestionIndex}. Rebuilding reads every translation, so changes
+ * only request a rebuild from a single background worker: the writing request does not wait for it, and
+ * changes arriving while a rebuild is queued share that one rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final UniversityRepository universityRepository;
+
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("suggestion-index").daemon().factory());
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+
+    @Override
+    public List<SuggestionResponse> suggest(String query, String lang, int limit) {
+        String language = lang == null || lang.isBlank() ? null : lang.trim();
+        return index.find(query, language, Math.clamp(limit, 1, MAX_LIMIT));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        requestRebuild();
+    }
+
+    // picks up changes made on other nodes; the echo of a local change was already handled above
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.concerns(CacheInvalidationEvent.UNIVERSITY) && !event.echo()) {
+            requestRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void requestRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                // cleared before reading, so a change committed during the rebuild queues the next one
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("Could not rebuild suggestion index", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildQueued.set(false);
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+
+        List<SuggestionIndex.Entry> entries = universityRepository.findSuggestionSources().stream()
+                .map(row -> new SuggestionIndex.Entry(
+                        SuggestionType.valueOf(row.getType()),
+                        row.getText(),
+                        row.getLang(),
+                        row.getUniversityId()
+                ))
+                .toList();
+
+        SuggestionIndex rebuilt = SuggestionIndex.build(entries);
+        index = rebuilt;
+
+        log.info("Suggestion index rebuilt: {} keys in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
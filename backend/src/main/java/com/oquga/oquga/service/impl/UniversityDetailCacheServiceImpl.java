@@ -0,0 +1,127 @@
+package com.oquga.oquga.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oquga.oquga.event.CacheInvalidationEvent;
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.event.UniversityViewsFlushedEvent;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
+import com.oquga.oquga.service.CatalogCacheService;
+import com.oquga.oquga.service.UniversityDetailCacheService;
+import com.oquga.oquga.service.UniversityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of serialized detail responses keyed by university and language preference.
+ * Entries are weighed by their byte length and evicted by Caffeine's W-TinyLFU policy.
+ * Keys carry the version the controller sends as ETag, so bytes cached before a commit are never served under
+ * the version that commit produced, even before the eviction after it has run.
+ * Keys also carry a per-university generation that every eviction moves forward. A load that read the database
+ * before a commit may still finish after the eviction, but it lands under the superseded generation where
+ * no later request looks, and the request that started it removes it again.
+ */
+@Service
+@Slf4j
+public class UniversityDetailCacheServiceImpl implements UniversityDetailCacheService {
+
+    private final UniversityService universityService;
+    private final CatalogCacheService catalogCacheService;
+    private final JsonMapper jsonMapper;
+    private final Cache<DetailKey, byte[]> cache;
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    // generation of every university not evicted since the last full flush
+    private volatile long baseGeneration;
+
+    public UniversityDetailCacheServiceImpl(UniversityService universityService,
+                                            CatalogCacheService catalogCacheService,
+                                            JsonMapper jsonMapper,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${application.cache.university-detail.max-size:64MB}") DataSize maxSize) {
+        this.universityService = universityService;
+        this.catalogCacheService = catalogCacheService;
+        this.jsonMapper = jsonMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((DetailKey key, byte[] json) -> json.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "universityDetail");
+    }
+
+    @Override
+    public byte[] getDetailJson(Long universityId, String version, List<String> languages) {
+        DetailKey detailKey = new DetailKey(universityId, version, generation(universityId), List.copyOf(languages));
+        byte[] json = cache.get(detailKey,
+                key -> jsonMapper.writeValueAsBytes(catalogCacheService.getUniversityEntry(
+                        key.universityId(), key.version(), "detail:" + key.languages(), UniversityDetailResponse.class,
+                        () -> universityService.getUniversityDetail(key.universityId(), key.languages()))));
+        if (generation(universityId) != detailKey.generation()) {
+            // evicted while loading: this request may still see what it read, nobody else will
+            cache.invalidate(detailKey);
+        }
+        return json;
+    }
+
+    @Override
+    public void evict(Long universityId) {
+        evictAll(Set.of(universityId));
+    }
+
+    @TransactionalEventListener
+    public void onUniversityChanged(UniversityChangedEvent event) {
+        evict(event.universityId());
+    }
+
+    @EventListener
+    @Order(1)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFullFlush()) {
+            synchronized (this) {
+                baseGeneration = generationSequence.incrementAndGet();
+                generations.clear();
+            }
+            cache.invalidateAll();
+        } else if (event.concerns(CacheInvalidationEvent.UNIVERSITY)) {
+            evict(event.id());
+        }
+    }
+
+    @EventListener
+    @Order(1)
+    public void onViewsFlushed(UniversityViewsFlushedEvent event) {
+        evictAll(new HashSet<>(event.universityIds()));
+    }
+
+    private void evictAll(Set<Long> universityIds) {
+        synchronized (this) {
+            for (Long universityId : universityIds) {
+                generations.put(universityId, generationSequence.incrementAndGet());
+            }
+        }
+        cache.asMap().keySet().removeIf(key -> universityIds.contains(key.universityId()));
+    }
+
+    private long generation(Long universityId) {
+        return generations.getOrDefault(universityId, baseGeneration);
+    }
+
+    private record DetailKey(Long universityId, String version, long generation, List<String> languages) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.event.UniversityPhotoUploadedEvent;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.repository.projection.PhotoSource;
+import com.oquga.oquga.service.StorageService;
+import com.oquga.oquga.service.UniversityImageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates downscaled JPEG copies of university photos for responsive images. Uploads only announce the new
+ * photo; the copies are produced after commit on a small fixed pool with a bounded queue, so a burst of uploads
+ * cannot pile up decoded images in memory. Copies are written next to the original under deterministic keys and
+ * their widths are recorded only if the photo has not been replaced in the meantime. The dimensions are read from
+ * the image header first: a photo above the pixel limit is recorded without variants instead of being decoded, and
+ * a large original is subsampled while decoding. Photos that were skipped because the queue was full, or that
+ * failed, keep NULL widths and are picked up by {@link #backfill()}.
+ */
+@Service
+@Slf4j
+public class UniversityImageServiceImpl implements UniversityImageService {
+
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final UniversityRepository universityRepository;
+    private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Integer> variantWidths;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    public UniversityImageServiceImpl(UniversityRepository universityRepository,
+                                      StorageService storageService,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${application.images.variant-widths:320,640,1280}") List<Integer> variantWidths,
+                                      @Value("${application.images.threads:2}") int threads,
+                                      @Value("${application.images.queue-capacity:100}") int queueCapacity,
+                                      @Value("${application.images.max-pixels:50000000}") long maxPixels) {
+        this.universityRepository = universityRepository;
+        this.storageService = storageService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.variantWidths = variantWidths.stream().sorted().toList();
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon().factory(),
+                (task, pool) -> log.warn("Image variant queue is full, the photo is left for the backfill"));
+        // registers the WebP reader with the application class loader, a packaged jar is not scanned otherwise
+        ImageIO.scanForPlugins();
+    }
+
+    @TransactionalEventListener
+    public void onPhotoUploaded(UniversityPhotoUploadedEvent event) {
+        executor.execute(() -> generateVariants(event.universityId(), event.photoKey()));
+    }
+
+    @Override
+    public Map<Integer, String> variantKeys(String photoKey, Integer[] widths) {
+        Map<Integer, String> keys = new LinkedHashMap<>();
+        if (photoKey == null || widths == null) {
+            return keys;
+        }
+        for (Integer width : widths) {
+            keys.put(width, variantKey(photoKey, width));
+        }
+        return keys;
+    }
+
+    @Override
+    public int backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Image variant backfill is already running");
+        }
+        List<PhotoSource> pending;
+        try {
+            pending = universityRepository.findPhotosWithoutVariants();
+        } catch (RuntimeException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+        // one photo at a time, so the backfill never competes with fresh uploads for the pool
+        Thread.ofVirtual().name("image-variants-backfill").start(() -> {
+            try {
+                for (PhotoSource photo : pending) {
+                    generateVariants(photo.getUniversityId(), photo.getPhotoKey());
+                }
+                log.info("Image variant backfill processed {} photos", pending.size());
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generateVariants(Long universityId, String photoKey) {
+        List<Integer> widths = new ArrayList<>();
+        try (InputStream content = storageService.getFile(photoKey);
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.warn("Photo {} of university {} is not a readable image, no variants generated", photoKey, universityId);
+            } else {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    // the header alone tells the size, nothing is decoded for a photo that is too large
+                    int originalWidth = reader.getWidth(0);
+                    long pixels = (long) originalWidth * reader.getHeight(0);
+                    List<Integer> targets = variantWidths.stream().filter(width -> width < originalWidth).toList();
+                    if (pixels > maxPixels) {
+                        log.warn("Photo {} of university {} has {} pixels, more than {}; no variants generated",
+                                photoKey, universityId, pixels, maxPixels);
+                    } else if (!targets.isEmpty()) {
+                        BufferedImage original = reader.read(0, subsampled(reader, originalWidth, targets.getLast()));
+                        for (int width : targets) {
+                            byte[] jpeg = encodeJpeg(resize(original, width));
+                            storageService.put(variantKey(photoKey, width), new ByteArrayInputStream(jpeg), jpeg.length, VARIANT_CONTENT_TYPE);
+                            widths.add(width);
+                        }
+                    }
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for photo {} of university {}", photoKey, universityId, e);
+            deleteVariants(photoKey, widths);
+            return;
+        }
+
+        Boolean recorded = transactionTemplate.execute(status -> {
+            if (universityRepository.updatePhotoVariants(universityId, photoKey, widths.toArray(Integer[]::new),
+                    LocalDateTime.now()) == 0) {
+                return false;
+            }
+            eventPublisher.publishEvent(new UniversityChangedEvent(universityId));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(recorded)) {
+            log.debug("Photo {} of university {} was replaced while its variants were generated", photoKey, universityId);
+            deleteVariants(photoKey, widths);
+        }
+    }
+
+    static String variantKey(String photoKey, int width) {
+        int extension = photoKey.lastIndexOf('.');
+        String base = extension > photoKey.lastIndexOf('/') ? photoKey.substring(0, extension) : photoKey;
+        return base + "_w" + width + ".jpg";
+    }
+
+    // point-samples a large original down to twice the largest variant while decoding, the halving resize smooths the rest
+    private static ImageReadParam subsampled(ImageReader reader, int originalWidth, int largestVariant) {
+        int step = Math.max(1, originalWidth / (2 * largestVariant));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return param;
+    }
+
+    private void deleteVariants(String photoKey, List<Integer> widths) {
+        for (Integer width : widths) {
+            storageService.delete(variantKey(photoKey, width));
+        }
+    }
+
+    // halves the image until the target width, a single bilinear step from a large photo looks aliased
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha channel, transparent areas become white
+            graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
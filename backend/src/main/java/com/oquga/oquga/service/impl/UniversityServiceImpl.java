@@ -1,26 +1,46 @@
 package com.oquga.oquga.service.impl;
 
 import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.PhotoUploadUrlRequest;
+import com.oquga.oquga.dto.university.req.UpdateBasicInfoRequest;
 import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.PhotoUploadUrlResponse;
+import com.oquga.oquga.dto.university.res.UniversityBasicInfoResponse;
 import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
 import com.oquga.oquga.dto.university.res.UniversityListResponse;
 import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.dto.university.res.UniversitySectionResponse;
 import com.oquga.oquga.entity.*;
 import com.oquga.oquga.entity.translation.*;
 import com.oquga.oquga.enums.DegreeLevel;
 import com.oquga.oquga.enums.RoleType;
+import com.oquga.oquga.enums.UniversitySort;
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.event.UniversityPhotoUploadedEvent;
+import com.oquga.oquga.exception.UniversityConflictException;
 import com.oquga.oquga.repository.*;
+import com.oquga.oquga.service.ReferenceDataService;
 import com.oquga.oquga.service.StorageService;
+import com.oquga.oquga.service.UniversityImageService;
 import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.ViewCountService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.NullNode;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
@@ -32,82 +52,181 @@ import java.util.stream.Collectors;
 public class UniversityServiceImpl implements UniversityService {
 
     private static final Set<String> REQUIRED_LANGUAGES = Set.of("ru", "kk", "en");
-    private static final List<String> ALLOWED_IMAGE_TYPES = List.of("image/jpeg", "image/png", "image/webp");
+    private static final Map<String, String> IMAGE_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/webp", ".webp");
+    private static final int IMAGE_SIGNATURE_LENGTH = 12;
 
     private final UniversityRepository universityRepository;
-    private final LanguageRepository languageRepository;
     private final UserRepository userRepository;
     private final FacultyRepository facultyRepository;
     private final EducationalProgramGroupRepository programGroupRepository;
     private final InternationalSectionRepository internationalSectionRepository;
+    private final ReferenceDataService referenceDataService;
     private final StorageService storageService;
+    private final UniversityImageService universityImageService;
+    private final ViewCountService viewCountService;
+    private final UniversityTranslationRepository universityTranslationRepository;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.search.fuzzy-threshold:0.35}")
+    private double fuzzyThreshold;
+
+    @Value("${application.uploads.photo-max-size:10MB}")
+    private DataSize maxPhotoSize;
+
+    @Value("${application.uploads.url-ttl:10m}")
+    private Duration uploadUrlTtl;
 
     @Override
     @Transactional(readOnly = true)
-    public UniversityListResponse getUniversities(String search, int page, int limit) {
-        PageRequest pageRequest = PageRequest.of(page - 1, limit);
+    public UniversityListResponse getUniversities(String search, int page, int limit, UniversitySort sort, boolean fuzzy,
+                                                  List<String> languages) {
+        validateLanguages(languages);
+        PageRequest pageRequest = PageRequest.of(page - 1, limit, toSort(sort));
 
         Page<Long> idPage;
         if (search == null || search.isBlank()) {
             idPage = universityRepository.findAllIds(pageRequest);
+        } else if (fuzzy) {
+            universityRepository.setWordSimilarityThreshold(fuzzyThreshold);
+            idPage = universityRepository.findIdsWithFuzzySearch(search.trim(), PageRequest.of(page - 1, limit));
         } else {
-            idPage = universityRepository.findIdsWithSearch(search.trim(), pageRequest);
+            String query = toPrefixTsQuery(search);
+            idPage = query.isEmpty()
+                    ? Page.empty(pageRequest)
+                    : universityRepository.findIdsWithSearch(query, PageRequest.of(page - 1, limit));
+        }
+
+        return new UniversityListResponse(
+                mapIdsToResponses(idPage.getContent(), languages),
+                new UniversityListResponse.MetaDto(
+                        idPage.getTotalElements(),
+                        page,
+                        limit,
+                        idPage.getTotalPages(),
+                        null
+                )
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UniversityListResponse getUniversitiesAfter(String cursor, int limit, boolean includeTotal, List<String> languages) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
         }
+        validateLanguages(languages);
 
-        List<UniversityResponse> data;
-        if (idPage.getContent().isEmpty()) {
-            data = List.of();
+        List<Long> ids;
+        if (cursor.isBlank()) {
+            ids = universityRepository.findNewestIds(limit + 1);
         } else {
-            List<University> universities = universityRepository.findByIdsWithTranslations(idPage.getContent());
+            UniversityCursor after = UniversityCursor.decode(cursor);
+            ids = universityRepository.findNewestIdsAfter(after.createdAt(), after.id(), limit + 1);
+        }
 
-            Map<Long, University> universityMap = universities.stream()
-                    .collect(Collectors.toMap(University::getId, Function.identity()));
+        boolean hasNext = ids.size() > limit;
+        List<UniversityResponse> data = mapIdsToResponses(hasNext ? ids.subList(0, limit) : ids, languages);
 
-            data = idPage.getContent().stream()
-                    .map(universityMap::get)
-                    .filter(Objects::nonNull)
-                    .map(this::mapToResponse)
-                    .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            UniversityResponse last = data.getLast();
+            nextCursor = new UniversityCursor(last.createdAt(), last.id()).encode();
         }
 
         return new UniversityListResponse(
                 data,
                 new UniversityListResponse.MetaDto(
-                        idPage.getTotalElements(),
-                        page,
+                        includeTotal ? universityRepository.count() : null,
+                        null,
                         limit,
-                        idPage.getTotalPages()
+                        null,
+                        nextCursor
                 )
         );
     }
 
+    /**
+     * With an empty language list every translation is fetched; otherwise only the requested
+     * languages are loaded and the first one available (in list order) is returned.
+     */
+    private List<UniversityResponse> mapIdsToResponses(List<Long> ids, List<String> languages) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        if (languages.isEmpty()) {
+            Map<Long, University> universityMap = universityRepository.findByIdsWithTranslations(ids).stream()
+                    .collect(Collectors.toMap(University::getId, Function.identity()));
+
+            return ids.stream()
+                    .map(universityMap::get)
+                    .filter(Objects::nonNull)
+                    .map(this::mapToResponse)
+                    .toList();
+        }
+
+        Map<Long, University> universityMap = universityRepository.findByIdsWithAdmission(ids).stream()
+                .collect(Collectors.toMap(University::getId, Function.identity()));
+        Map<Long, List<UniversityTranslation>> translationsByUniversity = universityTranslationRepository
+                .findByUniversityIdsAndLanguageCodes(ids, languages).stream()
+                .collect(Collectors.groupingBy(t -> t.getUniversity().getId()));
+
+        return ids.stream()
+                .map(universityMap::get)
+                .filter(Objects::nonNull)
+                .map(u -> mapToResponse(u, pickTranslation(translationsByUniversity.getOrDefault(u.getId(), List.of()), languages)))
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public UniversityResponse getUniversityById(Long id) {
-        University university = universityRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("University not found"));
-        return mapToResponse(university);
+    public UniversityResponse getUniversityById(Long id, List<String> languages) {
+        validateLanguages(languages);
+        University university = languages.isEmpty()
+                ? universityRepository.findByIdWithTranslationsAndAdmission(id).orElse(null)
+                : universityRepository.findByIdsWithAdmission(List.of(id)).stream().findFirst().orElse(null);
+        if (university == null) {
+            throw new RuntimeException("University not found");
+        }
+        if (languages.isEmpty()) {
+            return mapToResponse(university);
+        }
+        return mapToResponse(university, pickTranslation(
+                universityTranslationRepository.findByUniversityIdsAndLanguageCodes(List.of(id), languages), languages));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public UniversityDetailResponse getUniversityDetail(Long id) {
-        University university = universityRepository.findByIdWithTranslationsAndAdmission(id)
+    public UniversityDetailResponse getUniversityDetail(Long id, List<String> languages) {
+        validateLanguages(languages);
+        String json = universityRepository.findDetailJsonById(id, languages.toArray(String[]::new))
                 .orElseThrow(() -> new RuntimeException("University not found with id: " + id));
+        UniversityDetailResponse response = completeDetailResponse(jsonMapper.readValue(json, UniversityDetailResponse.class));
+        // progress counts translations in every language, so it is only meaningful for the full response
+        return languages.isEmpty() ? response : withoutProgress(response);
+    }
 
-        universityRepository.findByIdWithLeadership(id);
-        universityRepository.findByIdWithAchievements(id);
-        universityRepository.findByIdWithHistoryEvents(id);
-        universityRepository.findByIdWithTuitionDiscounts(id);
-        universityRepository.findByIdWithFaculties(id);
-        universityRepository.findByIdWithInternationalSections(id);
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getUniversityVersion(Long id) {
+        return universityRepository.findVersionById(id);
+    }
 
-        facultyRepository.findByUniversityIdWithDepartments(id);
-        facultyRepository.findByUniversityIdWithProgramGroups(id);
-        programGroupRepository.findByUniversityIdWithPrograms(id);
-        internationalSectionRepository.findByUniversityIdWithItems(id);
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getUniversityDetailVersion(Long id) {
+        return universityRepository.findDetailVersionById(id);
+    }
 
-        return mapToDetailResponse(university);
+    @Override
+    @Transactional(readOnly = true)
+    public long getCatalogVersion() {
+        return universityRepository.findCatalogVersion();
     }
 
     @Override
@@ -135,8 +254,7 @@ public class UniversityServiceImpl implements UniversityService {
             String langCode = entry.getKey();
             CreateUniversityRequest.TranslationDto translationDto = entry.getValue();
 
-            Language language = languageRepository.findByCode(langCode)
-                    .orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+            Language language = referenceDataService.getLanguage(langCode);
 
             UniversityTranslation translation = new UniversityTranslation();
             translation.setLanguage(language);
@@ -150,108 +268,410 @@ public class UniversityServiceImpl implements UniversityService {
             university.addTranslation(translation);
         }
 
-        University saved = universityRepository.save(university);
+        University saved = universityRepository.saveAndFlush(university);
+        refreshProgress(saved);
+        eventPublisher.publishEvent(new UniversityChangedEvent(saved.getId()));
         return mapToResponse(saved);
     }
 
     @Override
-    @Transactional
-    public String uploadPhoto(Long id, MultipartFile file, String userEmail) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("File must not be empty");
-        }
-
-        if (!ALLOWED_IMAGE_TYPES.contains(file.getContentType())) {
+    public PhotoUploadUrlResponse createPhotoUploadUrl(Long id, PhotoUploadUrlRequest request, String userEmail) {
+        String extension = IMAGE_EXTENSIONS.get(request.contentType());
+        if (extension == null) {
             throw new IllegalArgumentException("Invalid file type. Only JPEG, PNG, and WebP are allowed.");
         }
+        if (request.size() > maxPhotoSize.toBytes()) {
+            throw new IllegalArgumentException("File size exceeds " + maxPhotoSize.toMegabytes() + "MB limit");
+        }
 
         University university = universityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        String objectKey = photoFolder(university) + UUID.randomUUID() + extension;
+        StorageService.PresignedUpload upload = storageService.presignUpload(
+                objectKey, request.contentType(), maxPhotoSize.toBytes(), uploadUrlTtl);
+        return new PhotoUploadUrlResponse(upload.url(), upload.fields(), objectKey, upload.expiresAt());
+    }
 
-        if (user.getRole().getName() == RoleType.UNIVERSITY_ADMIN) {
-            if (user.getUniversity() == null || !user.getUniversity().getId().equals(id)) {
-                throw new AccessDeniedException("You can only upload photo for your own university");
-            }
-        } else if (user.getRole().getName() != RoleType.MAIN_ADMIN) {
-            throw new AccessDeniedException("Access denied");
+    // no surrounding transaction: the storage round-trips run without holding a pooled connection
+    @Override
+    public String confirmPhotoUpload(Long id, String objectKey, String userEmail) {
+        University university = universityRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+
+        String folder = photoFolder(university);
+        if (!objectKey.startsWith(folder) || objectKey.indexOf('/', folder.length()) >= 0) {
+            throw new IllegalArgumentException("Object does not belong to this university");
+        }
+        // the storage already enforced the signed limits, these checks catch a client that lied about the content
+        if (storageService.getSize(objectKey) > maxPhotoSize.toBytes()
+                || !isSupportedImage(storageService.readHead(objectKey, IMAGE_SIGNATURE_LENGTH))) {
+            storageService.delete(objectKey);
+            throw new IllegalArgumentException("Invalid file type. Only JPEG, PNG, and WebP are allowed.");
         }
 
-        String oldPhotoPath = university.getPhotoUrl();
-        if (oldPhotoPath != null && !oldPhotoPath.isBlank()) {
+        List<String> replaced = transactionTemplate.execute(status -> {
+            University current = universityRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("University not found"));
+            universityRepository.updatePhoto(id, objectKey, LocalDateTime.now());
+            List<String> previous = new ArrayList<>();
+            if (current.getPhotoUrl() != null && !current.getPhotoUrl().isBlank() && !current.getPhotoUrl().equals(objectKey)) {
+                // checked after the update has locked the row: a published profile keeps showing the old photo
+                // until it is republished, which deletes it then
+                if (!universityRepository.isPhotoPublished(id, current.getPhotoUrl())) {
+                    previous.add(current.getPhotoUrl());
+                }
+                previous.addAll(universityImageService.variantKeys(current.getPhotoUrl(), current.getPhotoVariantWidths()).values());
+            }
+            refreshProgress(current);
+            eventPublisher.publishEvent(new UniversityChangedEvent(id));
+            // resized copies are generated after commit, the confirmation does not wait for them
+            eventPublisher.publishEvent(new UniversityPhotoUploadedEvent(id, objectKey));
+            return previous;
+        });
+
+        for (String oldObject : replaced) {
             try {
-                storageService.delete(oldPhotoPath);
+                storageService.delete(oldObject);
             } catch (Exception e) {
-                log.warn("Could not delete old photo: {}", oldPhotoPath, e);
+                log.warn("Could not delete old photo: {}", oldObject, e);
             }
         }
 
-        String objectName = storageService.upload(file, "universities/" + university.getSlug());
+        return resolvePhotoUrl(objectKey);
+    }
+
+    @Override
+    @Transactional
+    public UniversityDetailResponse updateUniversity(Long id, UpdateUniversityRequest request, String userEmail) {
+        University university = loadUniversityGraph(id);
+        checkEditAccess(id, userEmail);
+
+        UpdateBasicInfoRequest basicInfo = new UpdateBasicInfoRequest(
+                request.websiteUrl(), request.virtualTourUrl(), request.foundedYear(),
+                request.contactPhone(), request.contactEmail());
+
+        Map<String, Object> submitted = new LinkedHashMap<>();
+        submitted.put("basicInfo", basicInfo);
+        // null sections are left untouched, except the admission rule where null removes it
+        if (request.translations() != null) submitted.put("translations", request.translations());
+        if (request.leadership() != null) submitted.put("leadership", request.leadership());
+        if (request.achievements() != null) submitted.put("achievements", request.achievements());
+        if (request.historyEvents() != null) submitted.put("historyEvents", request.historyEvents());
+        if (request.faculties() != null) submitted.put("faculties", request.faculties());
+        submitted.put("admissionRule", request.admissionRule());
+        if (request.tuitionDiscounts() != null) submitted.put("tuitionDiscounts", request.tuitionDiscounts());
+        if (request.internationalSections() != null) submitted.put("internationalSections", request.internationalSections());
+        checkVersion(university, request.version(), submitted);
+
+        updateBasicInfo(university, basicInfo);
+        updateTranslations(university, request.translations());
+        updateLeadership(university, request.leadership());
+        updateAchievements(university, request.achievements());
+        updateHistoryEvents(university, request.historyEvents());
+        updateFaculties(university, request.faculties());
+        updateAdmissionRule(university, request.admissionRule());
+        updateTuitionDiscounts(university, request.tuitionDiscounts());
+        updateInternationalSections(university, request.internationalSections());
+
+        return mapToDetailResponse(saveSection(university));
+    }
 
-        university.setPhotoUrl(objectName);
-        universityRepository.save(university);
+    @Override
+    @Transactional
+    public UniversitySectionResponse<UniversityBasicInfoResponse> patchBasicInfo(
+            Long id, long version, UpdateBasicInfoRequest request, String userEmail) {
+        University university = universityRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("basicInfo", request));
 
-        return resolvePhotoUrl(objectName);
+        updateBasicInfo(university, request);
+        University saved = saveSection(university);
+
+        return new UniversitySectionResponse<>(saved.getVersion(), new UniversityBasicInfoResponse(
+                saved.getId(),
+                saved.getSlug(),
+                resolvePhotoUrl(saved.getPhotoUrl()),
+                saved.getWebsiteUrl(),
+                saved.getVirtualTourUrl() != null ? saved.getVirtualTourUrl() : "",
+                saved.getFoundedYear(),
+                saved.getContactPhone(),
+                saved.getContactEmail(),
+                saved.getProgressPercent(),
+                saved.getUpdatedAt()
+        ));
     }
 
     @Override
     @Transactional
-    public UniversityDetailResponse updateUniversity(Long id, UpdateUniversityRequest request, String userEmail) {
+    public UniversitySectionResponse<Map<String, UniversityDetailResponse.TranslationDto>> patchTranslations(
+            Long id, long version, Map<String, UpdateUniversityRequest.TranslationDto> translations, String userEmail) {
         University university = universityRepository.findByIdWithTranslationsAndAdmission(id)
                 .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("translations", translations));
+
+        updateTranslations(university, translations);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), completeTranslations(mapTranslations(saved)));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<List<UniversityDetailResponse.LeadershipDto>> patchLeadership(
+            Long id, long version, List<UpdateUniversityRequest.LeadershipDto> leadership, String userEmail) {
+        University university = universityRepository.findByIdWithLeadership(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("leadership", leadership));
+
+        updateLeadership(university, leadership);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapLeadership(saved));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<List<UniversityDetailResponse.AchievementDto>> patchAchievements(
+            Long id, long version, List<UpdateUniversityRequest.AchievementDto> achievements, String userEmail) {
+        University university = universityRepository.findByIdWithAchievements(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("achievements", achievements));
+
+        updateAchievements(university, achievements);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapAchievements(saved));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<List<UniversityDetailResponse.HistoryEventDto>> patchHistoryEvents(
+            Long id, long version, List<UpdateUniversityRequest.HistoryEventDto> historyEvents, String userEmail) {
+        University university = universityRepository.findByIdWithHistoryEvents(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("historyEvents", historyEvents));
+
+        updateHistoryEvents(university, historyEvents);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapHistoryEvents(saved));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<UniversityDetailResponse.FacultyDto> patchFaculty(
+            Long id, Long facultyId, long version, UpdateUniversityRequest.FacultyDto faculty, String userEmail) {
+        Faculty existing = facultyRepository.findByIdAndUniversityIdWithDepartments(facultyId, id)
+                .orElseThrow(() -> new RuntimeException("Faculty not found"));
+        checkEditAccess(id, userEmail);
+
+        facultyRepository.findByIdWithProgramGroups(facultyId);
+        programGroupRepository.findByFacultyIdWithPrograms(facultyId);
+        if (!Objects.equals(existing.getUniversity().getVersion(), version)) {
+            Map<String, Object> conflicts = new LinkedHashMap<>();
+            UniversityDetailResponse.FacultyDto current = mapFacultyToDto(existing);
+            if (!sameSection(faculty, current)) {
+                conflicts.put("faculty", current);
+            }
+            throw new UniversityConflictException(existing.getUniversity().getVersion(), conflicts);
+        }
+
+        updateFaculty(existing, faculty);
+        University saved = saveSection(existing.getUniversity());
+        return new UniversitySectionResponse<>(saved.getVersion(), mapFacultyToDto(existing));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<UniversityDetailResponse.AdmissionRuleDto> patchAdmissionRule(
+            Long id, long version, UpdateUniversityRequest.AdmissionRuleDto admissionRule, String userEmail) {
+        University university = universityRepository.findByIdWithTranslationsAndAdmission(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("admissionRule", admissionRule));
+
+        updateAdmissionRule(university, admissionRule);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapAdmissionRule(saved));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<List<UniversityDetailResponse.TuitionDiscountDto>> patchTuitionDiscounts(
+            Long id, long version, List<UpdateUniversityRequest.TuitionDiscountDto> tuitionDiscounts, String userEmail) {
+        University university = universityRepository.findByIdWithTuitionDiscounts(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
+        checkVersion(university, version, section("tuitionDiscounts", tuitionDiscounts));
+
+        updateTuitionDiscounts(university, tuitionDiscounts);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapTuitionDiscounts(saved));
+    }
+
+    @Override
+    @Transactional
+    public UniversitySectionResponse<List<UniversityDetailResponse.InternationalSectionDto>> patchInternationalSections(
+            Long id, long version, List<UpdateUniversityRequest.InternationalSectionDto> internationalSections, String userEmail) {
+        University university = universityRepository.findByIdWithInternationalSections(id)
+                .orElseThrow(() -> new RuntimeException("University not found"));
+        checkEditAccess(id, userEmail);
 
-        universityRepository.findByIdWithLeadership(id);
-        universityRepository.findByIdWithAchievements(id);
-        universityRepository.findByIdWithHistoryEvents(id);
-        universityRepository.findByIdWithTuitionDiscounts(id);
-        universityRepository.findByIdWithFaculties(id);
-        universityRepository.findByIdWithInternationalSections(id);
-        facultyRepository.findByUniversityIdWithDepartments(id);
-        facultyRepository.findByUniversityIdWithProgramGroups(id);
-        programGroupRepository.findByUniversityIdWithPrograms(id);
         internationalSectionRepository.findByUniversityIdWithItems(id);
+        checkVersion(university, version, section("internationalSections", internationalSections));
+
+        updateInternationalSections(university, internationalSections);
+        University saved = saveSection(university);
+        return new UniversitySectionResponse<>(saved.getVersion(), mapInternationalSections(saved));
+    }
 
+    private void checkEditAccess(Long universityId, String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         RoleType userRole = user.getRole().getName();
 
         if (userRole == RoleType.UNIVERSITY_ADMIN) {
-            if (user.getUniversity() == null || !user.getUniversity().getId().equals(id)) {
+            if (user.getUniversity() == null || !user.getUniversity().getId().equals(universityId)) {
                 throw new AccessDeniedException("You can only edit your own university");
             }
         } else if (userRole != RoleType.MAIN_ADMIN) {
             throw new AccessDeniedException("Access denied");
         }
+    }
 
-        updateBasicInfo(university, request);
-        updateTranslations(university, request.translations());
-        updateLeadership(university, request.leadership());
-        updateAchievements(university, request.achievements());
-        updateHistoryEvents(university, request.historyEvents());
-        updateFaculties(university, request.faculties());
-        updateAdmissionRule(university, request.admissionRule());
-        updateTuitionDiscounts(university, request.tuitionDiscounts());
-        updateInternationalSections(university, request.internationalSections());
-
+    private University saveSection(University university) {
+        // nested sections have no versions of their own: any edit moves the parent's updatedAt and thus its ETag
         university.setUpdatedAt(LocalDateTime.now());
-        University saved = universityRepository.save(university);
+        University saved = universityRepository.saveAndFlush(university);
+        refreshProgress(saved);
+        eventPublisher.publishEvent(new UniversityChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Rejects an edit based on an outdated version. The client's copy is compared without any row lock:
+     * a stale version fails here with the current state of every submitted section that differs from
+     * what the client sent, and a writer that commits between this check and our flush makes the
+     * versioned UPDATE match no rows, which surfaces as an optimistic locking failure.
+     */
+    private void checkVersion(University university, Long expectedVersion, Map<String, Object> submitted) {
+        if (Objects.equals(university.getVersion(), expectedVersion)) {
+            return;
+        }
+        Map<String, Object> conflicts = new LinkedHashMap<>();
+        submitted.forEach((section, value) -> {
+            Object current = currentSection(university, section);
+            if (!sameSection(value, current)) {
+                conflicts.put(section, current);
+            }
+        });
+        throw new UniversityConflictException(university.getVersion(), conflicts);
+    }
 
-        return getUniversityDetail(saved.getId());
+    private static Map<String, Object> section(String name, Object value) {
+        Map<String, Object> submitted = new HashMap<>();
+        submitted.put(name, value);
+        return submitted;
+    }
+
+    /**
+     * Tells whether applying the submitted section would leave the current one as it is. Both sides are
+     * compared as JSON trees, which makes request and response DTOs of a section interchangeable, and the
+     * submitted side is read with the update semantics: a nested list or map sent as null is left untouched,
+     * and translation maps are merged, so languages the client did not send do not count as a difference.
+     */
+    private boolean sameSection(Object submitted, Object current) {
+        if (submitted == null || current == null) {
+            return submitted == current;
+        }
+        return appliesAsIs(jsonMapper.valueToTree(submitted), jsonMapper.valueToTree(current));
+    }
+
+    private static boolean appliesAsIs(JsonNode submitted, JsonNode current) {
+        if (submitted.isNull()) {
+            return current.isNull() || current.isContainer();
+        }
+        if (submitted.isObject()) {
+            if (!current.isObject()) {
+                return current.isNull() && submitted.isEmpty();
+            }
+            for (Map.Entry<String, JsonNode> field : submitted.properties()) {
+                JsonNode currentValue = current.get(field.getKey());
+                if (!appliesAsIs(field.getValue(), currentValue != null ? currentValue : NullNode.getInstance())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (submitted.isArray()) {
+            if (!current.isArray()) {
+                return current.isNull() && submitted.isEmpty();
+            }
+            if (submitted.size() != current.size()) {
+                return false;
+            }
+            for (int i = 0; i < submitted.size(); i++) {
+                if (!appliesAsIs(submitted.get(i), current.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (submitted.isNumber() && current.isNumber()) {
+            return submitted.decimalValue().compareTo(current.decimalValue()) == 0;
+        }
+        return submitted.equals(current);
+    }
+
+    private Object currentSection(University university, String section) {
+        return switch (section) {
+            case "basicInfo" -> new UpdateBasicInfoRequest(
+                    university.getWebsiteUrl(), university.getVirtualTourUrl(), university.getFoundedYear(),
+                    university.getContactPhone(), university.getContactEmail());
+            case "translations" -> university.getTranslations().stream()
+                    .collect(Collectors.toMap(t -> t.getLanguage().getCode(), t -> new UpdateUniversityRequest.TranslationDto(
+                            t.getName(), t.getCity(), t.getShortDescription(), t.getDescription(),
+                            t.getGoal(), t.getAddress(), t.getHistoryText())));
+            case "leadership" -> mapLeadership(university);
+            case "achievements" -> mapAchievements(university);
+            case "historyEvents" -> mapHistoryEvents(university);
+            case "faculties" -> mapFaculties(university);
+            case "admissionRule" -> mapAdmissionRule(university);
+            case "tuitionDiscounts" -> mapTuitionDiscounts(university);
+            case "internationalSections" -> mapInternationalSections(university);
+            default -> throw new IllegalArgumentException("Unknown section: " + section);
+        };
     }
 
     @Override
-    @Transactional
     public void incrementViewCount(Long id) {
-        University university = universityRepository.findById(id)
+        viewCountService.recordView(id);
+    }
+
+    private University loadUniversityGraph(Long id) {
+        University university = universityRepository.findByIdWithTranslationsAndAdmission(id)
                 .orElseThrow(() -> new RuntimeException("University not found"));
-        university.incrementViewCount();
-        universityRepository.save(university);
+
+        universityRepository.findByIdWithLeadership(id);
+        universityRepository.findByIdWithAchievements(id);
+        universityRepository.findByIdWithHistoryEvents(id);
+        universityRepository.findByIdWithTuitionDiscounts(id);
+        universityRepository.findByIdWithFaculties(id);
+        universityRepository.findByIdWithInternationalSections(id);
+        facultyRepository.findByUniversityIdWithDepartments(id);
+        facultyRepository.findByUniversityIdWithProgramGroups(id);
+        programGroupRepository.findByUniversityIdWithPrograms(id);
+        internationalSectionRepository.findByUniversityIdWithItems(id);
+
+        return university;
     }
 
-    private void updateBasicInfo(University university, UpdateUniversityRequest request) {
+    private void updateBasicInfo(University university, UpdateBasicInfoRequest request) {
         university.setWebsiteUrl(request.websiteUrl());
         university.setVirtualTourUrl(request.virtualTourUrl());
         university.setFoundedYear(request.foundedYear());
@@ -259,6 +679,24 @@ public class UniversityServiceImpl implements UniversityService {
         university.setContactEmail(request.contactEmail());
     }
 
+    private static String photoFolder(University university) {
+        return "universities/" + university.getSlug() + "/";
+    }
+
+    private static boolean isSupportedImage(byte[] head) {
+        return startsWith(head, 0, 0xFF, 0xD8, 0xFF)
+                || startsWith(head, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)
+                || startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P');
+    }
+
+    private static boolean startsWith(byte[] content, int offset, int... signature) {
+        if (content.length < offset + signature.length) return false;
+        for (int i = 0; i < signature.length; i++) {
+            if ((content[offset + i] & 0xFF) != signature[i]) return false;
+        }
+        return true;
+    }
+
     private String resolvePhotoUrl(String photoPath) {
         if (photoPath == null || photoPath.isBlank()) return null;
         if (photoPath.startsWith("http")) return photoPath; // Already a URL
@@ -271,6 +709,18 @@ public class UniversityServiceImpl implements UniversityService {
         }
     }
 
+    private Map<Integer, String> resolvePhotoVariants(University university) {
+        Map<Integer, String> variants = new LinkedHashMap<>();
+        universityImageService.variantKeys(university.getPhotoUrl(), university.getPhotoVariantWidths())
+                .forEach((width, key) -> {
+                    String url = resolvePhotoUrl(key);
+                    if (url != null) {
+                        variants.put(width, url);
+                    }
+                });
+        return variants;
+    }
+
     private boolean isTranslationComplete(UniversityTranslation t) {
         return t.getName() != null && !t.getName().isBlank()
                 && t.getCity() != null && !t.getCity().isBlank()
@@ -278,9 +728,13 @@ public class UniversityServiceImpl implements UniversityService {
     }
 
     private UniversityResponse mapToResponse(University university) {
+        return mapToResponse(university, university.getTranslations());
+    }
+
+    private UniversityResponse mapToResponse(University university, List<UniversityTranslation> universityTranslations) {
         Map<String, UniversityResponse.TranslationDto> translations = new HashMap<>();
 
-        for (UniversityTranslation t : university.getTranslations()) {
+        for (UniversityTranslation t : universityTranslations) {
             translations.put(
                     t.getLanguage().getCode(),
                     new UniversityResponse.TranslationDto(
@@ -297,6 +751,7 @@ public class UniversityServiceImpl implements UniversityService {
                 university.getId(),
                 university.getSlug(),
                 resolvePhotoUrl(university.getPhotoUrl()),
+                resolvePhotoVariants(university),
                 university.getWebsiteUrl(),
                 university.getVirtualTourUrl() != null ? university.getVirtualTourUrl() : "",
                 university.getFoundedYear(),
@@ -304,21 +759,42 @@ public class UniversityServiceImpl implements UniversityService {
                 university.getContactEmail(),
                 university.getViewCount(),
                 translations,
-                calculateProgress(university),
+                university.getProgressPercent(),
                 university.getCreatedAt(),
                 university.getUpdatedAt()
         );
     }
 
     private UniversityDetailResponse mapToDetailResponse(University university) {
+        return completeDetailResponse(new UniversityDetailResponse(
+                university.getId(),
+                university.getSlug(),
+                university.getPhotoUrl(),
+                university.getWebsiteUrl(),
+                university.getVirtualTourUrl(),
+                university.getFoundedYear(),
+                university.getContactPhone(),
+                university.getContactEmail(),
+                university.getViewCount(),
+                mapTranslations(university),
+                mapLeadership(university),
+                mapAchievements(university),
+                mapHistoryEvents(university),
+                mapFaculties(university),
+                mapAdmissionRule(university),
+                mapTuitionDiscounts(university),
+                mapInternationalSections(university),
+                null,
+                university.getCreatedAt(),
+                university.getUpdatedAt(),
+                university.getVersion()
+        ));
+    }
+
+    private Map<String, UniversityDetailResponse.TranslationDto> mapTranslations(University university) {
         Map<String, UniversityDetailResponse.TranslationDto> translations = new HashMap<>();
 
         for (UniversityTranslation t : university.getTranslations()) {
-            boolean complete = t.getName() != null && !t.getName().isBlank()
-                    && t.getCity() != null && !t.getCity().isBlank()
-                    && t.getDescription() != null && !t.getDescription().isBlank()
-                    && t.getGoal() != null && !t.getGoal().isBlank();
-
             translations.put(
                     t.getLanguage().getCode(),
                     new UniversityDetailResponse.TranslationDto(
@@ -329,82 +805,128 @@ public class UniversityServiceImpl implements UniversityService {
                             t.getAddress(),
                             t.getCity(),
                             t.getHistoryText(),
-                            complete
+                            false
                     )
             );
         }
+        return translations;
+    }
 
-        List<UniversityDetailResponse.LeadershipDto> leadershipList = university.getLeadership().stream()
+    private List<UniversityDetailResponse.LeadershipDto> mapLeadership(University university) {
+        return university.getLeadership().stream()
                 .sorted(Comparator.comparingInt(l -> l.getSortOrder() != null ? l.getSortOrder() : 0))
                 .map(l -> new UniversityDetailResponse.LeadershipDto(
                         l.getId(), l.getFullName(), l.getPosition(), l.getBioSummary(), l.getSortOrder()
                 ))
                 .toList();
+    }
 
-        List<UniversityDetailResponse.AchievementDto> achievementList = university.getAchievements().stream()
+    private List<UniversityDetailResponse.AchievementDto> mapAchievements(University university) {
+        return university.getAchievements().stream()
                 .sorted(Comparator.comparingInt(a -> a.getSortOrder() != null ? a.getSortOrder() : 0))
                 .map(a -> new UniversityDetailResponse.AchievementDto(
                         a.getId(), a.getTitle(), a.getYear(), a.getRankValue(), a.getDetails(), a.getSortOrder()
                 ))
                 .toList();
+    }
 
-        List<UniversityDetailResponse.HistoryEventDto> historyList = university.getHistoryEvents().stream()
+    private List<UniversityDetailResponse.HistoryEventDto> mapHistoryEvents(University university) {
+        return university.getHistoryEvents().stream()
                 .sorted(Comparator.comparingInt(h -> h.getSortOrder() != null ? h.getSortOrder() : 0))
                 .map(h -> new UniversityDetailResponse.HistoryEventDto(
                         h.getId(), h.getEventYear(), h.getEventDescription(), h.getSortOrder()
                 ))
                 .toList();
+    }
 
-        List<UniversityDetailResponse.FacultyDto> facultyList = university.getFaculties().stream()
+    private List<UniversityDetailResponse.FacultyDto> mapFaculties(University university) {
+        return university.getFaculties().stream()
                 .sorted(Comparator.comparingInt(f -> f.getSortOrder() != null ? f.getSortOrder() : 0))
                 .map(this::mapFacultyToDto)
                 .toList();
+    }
 
-        UniversityDetailResponse.AdmissionRuleDto admissionRuleDto = null;
-        if (university.getAdmissionRule() != null) {
-            var ar = university.getAdmissionRule();
-            admissionRuleDto = new UniversityDetailResponse.AdmissionRuleDto(
-                    ar.getStartDate(), ar.getEndDate(), ar.getDocumentsText(),
-                    ar.getStepsText(), ar.getMilitaryDepartmentInfo(), ar.getDormitoryInfo()
-            );
-        }
+    private UniversityDetailResponse.AdmissionRuleDto mapAdmissionRule(University university) {
+        AdmissionRule ar = university.getAdmissionRule();
+        if (ar == null) return null;
+        return new UniversityDetailResponse.AdmissionRuleDto(
+                ar.getStartDate(), ar.getEndDate(), ar.getDocumentsText(),
+                ar.getStepsText(), ar.getMilitaryDepartmentInfo(), ar.getDormitoryInfo()
+        );
+    }
 
-        List<UniversityDetailResponse.TuitionDiscountDto> tuitionList = university.getTuitionDiscounts().stream()
+    private List<UniversityDetailResponse.TuitionDiscountDto> mapTuitionDiscounts(University university) {
+        return university.getTuitionDiscounts().stream()
                 .sorted(Comparator.comparingInt(t -> t.getSortOrder() != null ? t.getSortOrder() : 0))
                 .map(t -> new UniversityDetailResponse.TuitionDiscountDto(
                         t.getId(), t.getCategoryName(), t.getPricePerYear(), t.getScholarshipInfo(), t.getSortOrder()
                 ))
                 .toList();
+    }
 
-        List<UniversityDetailResponse.InternationalSectionDto> internationalList = university.getInternationalSections().stream()
+    private List<UniversityDetailResponse.InternationalSectionDto> mapInternationalSections(University university) {
+        return university.getInternationalSections().stream()
                 .sorted(Comparator.comparingInt(s -> s.getSortOrder() != null ? s.getSortOrder() : 0))
                 .map(this::mapInternationalSectionToDto)
                 .toList();
+    }
 
+    /**
+     * Finishes a detail response assembled either from the entity graph or from
+     * {@link UniversityRepository#findDetailJsonById}: the draft carries the raw photo
+     * object key, and this resolves it, fills in translation completeness and progress.
+     */
+    private UniversityDetailResponse completeDetailResponse(UniversityDetailResponse draft) {
         return new UniversityDetailResponse(
-                university.getId(),
-                university.getSlug(),
-                resolvePhotoUrl(university.getPhotoUrl()),
-                university.getWebsiteUrl(),
-                university.getVirtualTourUrl() != null ? university.getVirtualTourUrl() : "",
-                university.getFoundedYear(),
-                university.getContactPhone(),
-                university.getContactEmail(),
-                university.getViewCount(),
-                translations,
-                leadershipList,
-                achievementList,
-                historyList,
-                facultyList,
-                admissionRuleDto,
-                tuitionList,
-                internationalList,
-                calculateDetailedProgress(university),
-                university.getCreatedAt(),
-                university.getUpdatedAt()
+                draft.id(),
+                draft.slug(),
+                resolvePhotoUrl(draft.photoUrl()),
+                draft.websiteUrl(),
+                draft.virtualTourUrl() != null ? draft.virtualTourUrl() : "",
+                draft.foundedYear(),
+                draft.contactPhone(),
+                draft.contactEmail(),
+                draft.viewCount(),
+                completeTranslations(draft.translations()),
+                draft.leadership(),
+                draft.achievements(),
+                draft.historyEvents(),
+                draft.faculties(),
+                draft.admissionRule(),
+                draft.tuitionDiscounts(),
+                draft.internationalSections(),
+                calculateDetailedProgress(draft),
+                draft.createdAt(),
+                draft.updatedAt(),
+                draft.version()
         );
     }
 
+    private Map<String, UniversityDetailResponse.TranslationDto> completeTranslations(
+            Map<String, UniversityDetailResponse.TranslationDto> drafts) {
+        Map<String, UniversityDetailResponse.TranslationDto> translations = new HashMap<>();
+
+        drafts.forEach((code, t) -> {
+            boolean complete = t.name() != null && !t.name().isBlank()
+                    && t.city() != null && !t.city().isBlank()
+                    && t.description() != null && !t.description().isBlank()
+                    && t.goal() != null && !t.goal().isBlank();
+
+            translations.put(code, new UniversityDetailResponse.TranslationDto(
+                    t.name(),
+                    t.shortDescription(),
+                    t.description(),
+                    t.goal(),
+                    t.address(),
+                    t.city(),
+                    t.historyText(),
+                    complete
+            ));
+        });
+
+        return translations;
+    }
+
     private void updateTranslations(University university, Map<String, UpdateUniversityRequest.TranslationDto> translations) {
         if (translations == null) return;
 
@@ -417,8 +939,7 @@ public class UniversityServiceImpl implements UniversityService {
 
             UniversityTranslation translation = existingTranslations.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode)
-                        .orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new UniversityTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -516,14 +1037,18 @@ public class UniversityServiceImpl implements UniversityService {
                 faculty.setCreatedAt(LocalDateTime.now());
                 university.addFaculty(faculty);
             }
-            faculty.setSortOrder(dto.sortOrder() != null ? dto.sortOrder() : 0);
-            faculty.setUpdatedAt(LocalDateTime.now());
-            updateFacultyTranslations(faculty, dto.translations());
-            updateDepartments(faculty, dto.departments());
-            updateProgramGroups(faculty, dto.programGroups());
+            updateFaculty(faculty, dto);
         }
     }
 
+    private void updateFaculty(Faculty faculty, UpdateUniversityRequest.FacultyDto dto) {
+        faculty.setSortOrder(dto.sortOrder() != null ? dto.sortOrder() : 0);
+        faculty.setUpdatedAt(LocalDateTime.now());
+        updateFacultyTranslations(faculty, dto.translations());
+        updateDepartments(faculty, dto.departments());
+        updateProgramGroups(faculty, dto.programGroups());
+    }
+
     private void updateFacultyTranslations(Faculty faculty, Map<String, UpdateUniversityRequest.FacultyTranslationDto> translations) {
         if (translations == null) return;
         Map<String, FacultyTranslation> existingMap = faculty.getTranslations().stream().collect(Collectors.toMap(t -> t.getLanguage().getCode(), Function.identity()));
@@ -532,7 +1057,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.FacultyTranslationDto dto = entry.getValue();
             FacultyTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new FacultyTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -572,7 +1097,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.DepartmentTranslationDto dto = entry.getValue();
             DepartmentTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new DepartmentTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -624,7 +1149,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.ProgramGroupTranslationDto dto = entry.getValue();
             EducationalProgramGroupTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new EducationalProgramGroupTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -665,7 +1190,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.ProgramTranslationDto dto = entry.getValue();
             EducationalProgramTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new EducationalProgramTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -768,7 +1293,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.InternationalSectionTranslationDto dto = entry.getValue();
             InternationalSectionTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new InternationalSectionTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -810,7 +1335,7 @@ public class UniversityServiceImpl implements UniversityService {
             UpdateUniversityRequest.InternationalItemTranslationDto dto = entry.getValue();
             InternationalItemTranslation translation = existingMap.get(langCode);
             if (translation == null) {
-                Language language = languageRepository.findByCode(langCode).orElseThrow(() -> new RuntimeException("Language not found: " + langCode));
+                Language language = referenceDataService.getLanguage(langCode);
                 translation = new InternationalItemTranslation();
                 translation.setLanguage(language);
                 translation.setCreatedAt(LocalDateTime.now());
@@ -822,6 +1347,34 @@ public class UniversityServiceImpl implements UniversityService {
         }
     }
 
+    private void validateLanguages(List<String> languages) {
+        for (String lang : languages) {
+            if (!REQUIRED_LANGUAGES.contains(lang)) {
+                throw new IllegalArgumentException("Unsupported language: " + lang);
+            }
+        }
+    }
+
+    private List<UniversityTranslation> pickTranslation(List<UniversityTranslation> translations, List<String> languages) {
+        for (String lang : languages) {
+            for (UniversityTranslation t : translations) {
+                if (t.getLanguage().getCode().equals(lang)) {
+                    return List.of(t);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private UniversityDetailResponse withoutProgress(UniversityDetailResponse r) {
+        return new UniversityDetailResponse(
+                r.id(), r.slug(), r.photoUrl(), r.websiteUrl(), r.virtualTourUrl(), r.foundedYear(),
+                r.contactPhone(), r.contactEmail(), r.viewCount(), r.translations(), r.leadership(),
+                r.achievements(), r.historyEvents(), r.faculties(), r.admissionRule(), r.tuitionDiscounts(),
+                r.internationalSections(), null, r.createdAt(), r.updatedAt(), r.version()
+        );
+    }
+
     private void validateTranslations(Map<String, CreateUniversityRequest.TranslationDto> translations) {
         if (translations == null || translations.size() != 3) {
             throw new RuntimeException("All three translations (ru, kk, en) are required");
@@ -840,65 +1393,74 @@ public class UniversityServiceImpl implements UniversityService {
         }
     }
 
-    private int calculateProgress(University university) {
-        int progress = 0;
-        int maxProgress = 100;
-        if (university.getPhotoUrl() != null && !university.getPhotoUrl().isBlank()) progress += 5;
-        if (university.getWebsiteUrl() != null && !university.getWebsiteUrl().isBlank()) progress += 5;
-        if (university.getFoundedYear() != null) progress += 5;
-        if (university.getContactPhone() != null && !university.getContactPhone().isBlank()) progress += 5;
-        if (university.getContactEmail() != null && !university.getContactEmail().isBlank()) progress += 5;
-        long completeTranslations = university.getTranslations().stream().filter(t -> t.getName() != null && !t.getName().isBlank() && t.getCity() != null && !t.getCity().isBlank() && t.getDescription() != null && !t.getDescription().isBlank()).count();
-        progress += (int) (completeTranslations * 5);
-        if (!university.getLeadership().isEmpty()) progress += 10;
-        if (!university.getAchievements().isEmpty()) progress += 10;
-        if (!university.getFaculties().isEmpty()) progress += 15;
-        if (university.getAdmissionRule() != null) progress += 10;
-        if (!university.getTuitionDiscounts().isEmpty()) progress += 5;
-        if (!university.getInternationalSections().isEmpty()) progress += 5;
-        return Math.min(progress, maxProgress);
+    /**
+     * Turns free-text input into a tsquery where every word is a prefix match, so results
+     * show up while the user is still typing. Anything but letters and digits is dropped,
+     * which also keeps tsquery operators out of the user input.
+     */
+    private static String toPrefixTsQuery(String search) {
+        return Arrays.stream(search.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private Sort toSort(UniversitySort sort) {
+        return switch (sort == null ? UniversitySort.NEWEST : sort) {
+            case NEWEST -> Sort.by(Sort.Direction.DESC, "createdAt", "id");
+            case PROGRESS_ASC -> Sort.by(Sort.Direction.ASC, "progressPercent", "id");
+            case PROGRESS_DESC -> Sort.by(Sort.Direction.DESC, "progressPercent", "id");
+        };
     }
 
-    private UniversityDetailResponse.ProgressDto calculateDetailedProgress(University university) {
+    /**
+     * Recomputes the stored completeness score with the university_progress_percent SQL function
+     * (the single definition of the formula). The entity has to be flushed first.
+     */
+    private void refreshProgress(University university) {
+        university.setProgressPercent(universityRepository.refreshProgressPercent(university.getId()));
+    }
+
+    private UniversityDetailResponse.ProgressDto calculateDetailedProgress(UniversityDetailResponse university) {
         int basicFilled = 0;
         int basicTotal = 8;
-        if (university.getSlug() != null) basicFilled++;
-        if (university.getPhotoUrl() != null && !university.getPhotoUrl().isBlank()) basicFilled++;
-        if (university.getWebsiteUrl() != null && !university.getWebsiteUrl().isBlank()) basicFilled++;
-        if (university.getFoundedYear() != null) basicFilled++;
-        if (university.getContactPhone() != null && !university.getContactPhone().isBlank()) basicFilled++;
-        if (university.getContactEmail() != null && !university.getContactEmail().isBlank()) basicFilled++;
-        long namesCount = university.getTranslations().stream().filter(t -> t.getName() != null && !t.getName().isBlank()).count();
+        if (university.slug() != null) basicFilled++;
+        if (university.photoUrl() != null && !university.photoUrl().isBlank()) basicFilled++;
+        if (university.websiteUrl() != null && !university.websiteUrl().isBlank()) basicFilled++;
+        if (university.foundedYear() != null) basicFilled++;
+        if (university.contactPhone() != null && !university.contactPhone().isBlank()) basicFilled++;
+        if (university.contactEmail() != null && !university.contactEmail().isBlank()) basicFilled++;
+        long namesCount = university.translations().values().stream().filter(t -> t.name() != null && !t.name().isBlank()).count();
         if (namesCount == 3) basicFilled++;
-        long citiesCount = university.getTranslations().stream().filter(t -> t.getCity() != null && !t.getCity().isBlank()).count();
+        long citiesCount = university.translations().values().stream().filter(t -> t.city() != null && !t.city().isBlank()).count();
         if (citiesCount == 3) basicFilled++;
         int descFilled = 0;
         int descTotal = 12;
-        for (UniversityTranslation t : university.getTranslations()) {
-            if (t.getShortDescription() != null && !t.getShortDescription().isBlank()) descFilled++;
-            if (t.getDescription() != null && !t.getDescription().isBlank()) descFilled++;
-            if (t.getGoal() != null && !t.getGoal().isBlank()) descFilled++;
-            if (t.getHistoryText() != null && !t.getHistoryText().isBlank()) descFilled++;
+        for (UniversityDetailResponse.TranslationDto t : university.translations().values()) {
+            if (t.shortDescription() != null && !t.shortDescription().isBlank()) descFilled++;
+            if (t.description() != null && !t.description().isBlank()) descFilled++;
+            if (t.goal() != null && !t.goal().isBlank()) descFilled++;
+            if (t.historyText() != null && !t.historyText().isBlank()) descFilled++;
         }
-        int leaderFilled = university.getLeadership().size();
+        int leaderFilled = university.leadership().size();
         int leaderTotal = Math.max(1, leaderFilled);
-        int achieveFilled = university.getAchievements().size();
+        int achieveFilled = university.achievements().size();
         int achieveTotal = Math.max(1, achieveFilled);
-        int facultyFilled = university.getFaculties().size();
+        int facultyFilled = university.faculties().size();
         int facultyTotal = Math.max(1, facultyFilled);
         int admissionFilled = 0;
         int admissionTotal = 5;
-        if (university.getAdmissionRule() != null) {
-            var ar = university.getAdmissionRule();
-            if (ar.getStartDate() != null) admissionFilled++;
-            if (ar.getEndDate() != null) admissionFilled++;
-            if (ar.getDocumentsText() != null && !ar.getDocumentsText().isBlank()) admissionFilled++;
-            if (ar.getStepsText() != null && !ar.getStepsText().isBlank()) admissionFilled++;
-            if (ar.getDormitoryInfo() != null && !ar.getDormitoryInfo().isBlank()) admissionFilled++;
-        }
-        int tuitionFilled = university.getTuitionDiscounts().size();
+        if (university.admissionRule() != null) {
+            var ar = university.admissionRule();
+            if (ar.startDate() != null) admissionFilled++;
+            if (ar.endDate() != null) admissionFilled++;
+            if (ar.documentsText() != null && !ar.documentsText().isBlank()) admissionFilled++;
+            if (ar.stepsText() != null && !ar.stepsText().isBlank()) admissionFilled++;
+            if (ar.dormitoryInfo() != null && !ar.dormitoryInfo().isBlank()) admissionFilled++;
+        }
+        int tuitionFilled = university.tuitionDiscounts().size();
         int tuitionTotal = Math.max(1, tuitionFilled);
-        int intlFilled = university.getInternationalSections().size();
+        int intlFilled = university.internationalSections().size();
         int intlTotal = Math.max(1, intlFilled);
         int basicPercent = (basicFilled * 20) / basicTotal;
         int descPercent = (descFilled * 15) / descTotal;
@@ -0,0 +1,131 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.res.PublishResponse;
+import com.oquga.oquga.dto.university.res.PublishedUniversityResponse;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse.InternationalSectionDto;
+import com.oquga.oquga.entity.University;
+import com.oquga.oquga.entity.User;
+import com.oquga.oquga.enums.RoleType;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.repository.UserRepository;
+import com.oquga.oquga.repository.projection.SnapshotPayload;
+import com.oquga.oquga.service.ReferenceDataService;
+import com.oquga.oquga.service.StorageService;
+import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.UniversitySnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UniversitySnapshotServiceImpl implements UniversitySnapshotService {
+
+    // missing translations in a published profile fall back to the site's default locale
+    private static final String DEFAULT_LANGUAGE = "ru";
+
+    private final UniversityRepository universityRepository;
+    private final ReferenceDataService referenceDataService;
+    private final UserRepository userRepository;
+    private final UniversityService universityService;
+    private final StorageService storageService;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // no surrounding transaction: photos dropped from the published profile are deleted after the new snapshots commit
+    @Override
+    public PublishResponse publish(Long universityId, String userEmail) {
+        List<String> unpublishedPhotos = new ArrayList<>();
+        PublishResponse response = transactionTemplate.execute(status -> {
+            University university = universityRepository.findById(universityId)
+                    .orElseThrow(() -> new RuntimeException("University not found"));
+
+            User user = userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            if (user.getRole().getName() == RoleType.UNIVERSITY_ADMIN) {
+                if (user.getUniversity() == null || !user.getUniversity().getId().equals(universityId)) {
+                    throw new AccessDeniedException("You can only publish your own university");
+                }
+            } else if (user.getRole().getName() != RoleType.MAIN_ADMIN) {
+                throw new AccessDeniedException("Access denied");
+            }
+
+            List<String> languages = referenceDataService.getLanguageCodes();
+            LocalDateTime publishedAt = LocalDateTime.now();
+            String photoKey = universityRepository.lockPhotoKey(universityId);
+
+            // the previous snapshots kept their photo alive after it was replaced; it can go once they are gone
+            universityRepository.findPublishedPhotoKeys(universityId).stream()
+                    .filter(key -> !key.equals(photoKey))
+                    .forEach(unpublishedPhotos::add);
+            universityRepository.deleteSnapshots(universityId, university.getSlug());
+            for (String lang : languages) {
+                List<String> preference = lang.equals(DEFAULT_LANGUAGE) ? List.of(lang) : List.of(lang, DEFAULT_LANGUAGE);
+                String payload = jsonMapper.writeValueAsString(publicView(universityService.getUniversityDetail(universityId, preference)));
+                universityRepository.insertSnapshot(universityId, university.getSlug(), lang, payload, photoKey, publishedAt);
+            }
+
+            log.info("Published university {} ({}) in {} languages", universityId, university.getSlug(), languages.size());
+            return new PublishResponse(university.getSlug(), languages, publishedAt);
+        });
+
+        for (String photo : unpublishedPhotos) {
+            try {
+                storageService.delete(photo);
+            } catch (Exception e) {
+                log.warn("Could not delete unpublished photo: {}", photo, e);
+            }
+        }
+        return response;
+    }
+
+    // the detail is the editor's view: it also lists what the university has hidden and carries
+    // editing metadata; the photo is stored as a key next to the payload
+    private static PublishedUniversityResponse publicView(UniversityDetailResponse detail) {
+        List<InternationalSectionDto> sections = detail.internationalSections() == null ? null
+                : detail.internationalSections().stream()
+                .filter(section -> !Boolean.FALSE.equals(section.isActive()))
+                .map(section -> new InternationalSectionDto(section.id(), section.externalUrl(), section.sortOrder(),
+                        section.isActive(), section.translations(), section.items() == null ? null
+                        : section.items().stream().filter(item -> !Boolean.FALSE.equals(item.isActive())).toList()))
+                .toList();
+        return new PublishedUniversityResponse(detail.id(), detail.slug(), detail.websiteUrl(),
+                detail.virtualTourUrl(), detail.foundedYear(), detail.contactPhone(), detail.contactEmail(),
+                detail.translations(), detail.leadership(), detail.achievements(),
+                detail.historyEvents(), detail.faculties(), detail.admissionRule(), detail.tuitionDiscounts(),
+                sections, detail.createdAt(), detail.updatedAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getPublishedProfile(String slug, String lang) {
+        SnapshotPayload snapshot = universityRepository.findSnapshotPayload(slug, lang)
+                .orElseThrow(() -> new RuntimeException("Published university not found: " + slug));
+        // the payload is served as stored, only the photo link is signed per request because it expires
+        return "{\"photoUrl\": " + jsonMapper.writeValueAsString(resolvePhotoUrl(snapshot.getPhotoKey())) + ", "
+                + snapshot.getPayload().substring(1);
+    }
+
+    private String resolvePhotoUrl(String photoKey) {
+        if (photoKey == null || photoKey.isBlank()) return null;
+        if (photoKey.startsWith("http")) return photoKey; // Already a URL
+
+        try {
+            return storageService.getFileUrl(photoKey);
+        } catch (Exception e) {
+            log.error("Failed to resolve file URL for path: {}", photoKey, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.event.UniversityViewsFlushedEvent;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.ViewCountService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view counter. Views are absorbed by a per-university {@link LongAdder} and
+ * periodically added to universities.view_count with a single batched UPDATE.
+ * The adders are never reset: each counter remembers how much of its sum is already flushed,
+ * so views recorded while a flush is running are picked up by the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCountServiceImpl implements ViewCountService {
+
+    private final UniversityRepository universityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordView(Long universityId) {
+        counters.computeIfAbsent(universityId, id -> new Counter()).views.increment();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.views.flush-interval:5s}")
+    public synchronized int flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Counter> pending = new ArrayList<>();
+
+        counters.forEach((id, counter) -> {
+            long delta = counter.views.sum() - counter.flushed;
+            if (delta > 0) {
+                ids.add(id);
+                deltas.add(delta);
+                pending.add(counter);
+            }
+        });
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> updated;
+        try {
+            updated = universityRepository.addViewCounts(ids.toArray(Long[]::new), deltas.toArray(Long[]::new));
+        } catch (Exception e) {
+            log.warn("Could not flush view counts for {} universities, will retry", ids.size(), e);
+            return 0;
+        }
+
+        Set<Long> updatedIds = new HashSet<>(updated);
+        for (int i = 0; i < ids.size(); i++) {
+            Counter counter = pending.get(i);
+            if (updatedIds.contains(ids.get(i))) {
+                counter.flushed += deltas.get(i);
+            } else {
+                counters.remove(ids.get(i), counter);
+            }
+        }
+
+        eventPublisher.publishEvent(new UniversityViewsFlushedEvent(updated));
+        return updatedIds.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed view counts for {} universities on shutdown", flushed);
+    }
+
+    private static final class Counter {
+        private final LongAdder views = new LongAdder();
+        // only read and written under the flush lock
+        private long flushed;
+    }
+}
@@ -0,0 +1,32 @@
+ALTER TABLE universities ADD COLUMN progress_percent SMALLINT DEFAULT 0 NOT NULL;
+
+CREATE OR REPLACE FUNCTION university_progress_percent(p_university_id BIGINT)
+RETURNS SMALLINT
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT CAST(LEAST(100,
+          CASE WHEN u.photo_url ~ '\S' THEN 5 ELSE 0 END
+        + CASE WHEN u.website_url ~ '\S' THEN 5 ELSE 0 END
+        + CASE WHEN u.founded_year IS NOT NULL THEN 5 ELSE 0 END
+        + CASE WHEN u.contact_phone ~ '\S' THEN 5 ELSE 0 END
+        + CASE WHEN u.contact_email ~ '\S' THEN 5 ELSE 0 END
+        + 5 * (SELECT COUNT(*) FROM university_translations t
+               WHERE t.university_id = u.id
+                 AND t.name ~ '\S' AND t.city ~ '\S' AND t.description ~ '\S')
+        + CASE WHEN EXISTS (SELECT 1 FROM leadership x WHERE x.university_id = u.id) THEN 10 ELSE 0 END
+        + CASE WHEN EXISTS (SELECT 1 FROM achievements x WHERE x.university_id = u.id) THEN 10 ELSE 0 END
+        + CASE WHEN EXISTS (SELECT 1 FROM faculties x WHERE x.university_id = u.id) THEN 15 ELSE 0 END
+        + CASE WHEN EXISTS (SELECT 1 FROM admission_rules x WHERE x.university_id = u.id) THEN 10 ELSE 0 END
+        + CASE WHEN EXISTS (SELECT 1 FROM tuition_discounts x WHERE x.university_id = u.id) THEN 5 ELSE 0 END
+        + CASE WHEN EXISTS (SELECT 1 FROM international_sections x WHERE x.university_id = u.id) THEN 5 ELSE 0 END
+    ) AS SMALLINT)
+    FROM universities u
+    WHERE u.id = p_university_id
+$$;
+
+UPDATE universities SET progress_percent = university_progress_percent(id);
+
+CREATE INDEX idx_universities_progress_percent ON universities(progress_percent, id);
+
+COMMENT ON COLUMN universities.progress_percent IS 'Заполненность профиля университета (0-100), пересчитывается функцией university_progress_percent при каждом изменении';
@@ -0,0 +1,22 @@
+-- Конфигурация полнотекстового поиска выбирается по языку перевода: russian/english со стеммингом,
+-- для казахского (и любых будущих языков) - simple. ID языков подставляются из таблицы languages,
+-- так как генерируемая колонка может ссылаться только на константы.
+DO $$
+DECLARE
+    ru_id BIGINT := (SELECT id FROM languages WHERE code = 'ru');
+    en_id BIGINT := (SELECT id FROM languages WHERE code = 'en');
+BEGIN
+    EXECUTE format($f$
+        ALTER TABLE university_translations ADD COLUMN search_vector TSVECTOR
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector(CASE language_id WHEN %1$s THEN 'russian'::regconfig WHEN %2$s THEN 'english'::regconfig ELSE 'simple'::regconfig END, coalesce(name, '')), 'A') ||
+            setweight(to_tsvector(CASE language_id WHEN %1$s THEN 'russian'::regconfig WHEN %2$s THEN 'english'::regconfig ELSE 'simple'::regconfig END, coalesce(city, '')), 'B') ||
+            setweight(to_tsvector(CASE language_id WHEN %1$s THEN 'russian'::regconfig WHEN %2$s THEN 'english'::regconfig ELSE 'simple'::regconfig END, coalesce(short_description, '')), 'C')
+        ) STORED
+    $f$, coalesce(ru_id, -1), coalesce(en_id, -1));
+END
+$$;
+
+CREATE INDEX idx_ut_search_vector ON university_translations USING GIN (search_vector);
+
+COMMENT ON COLUMN university_translations.search_vector IS 'Поисковый вектор: name (A), city (B), short_description (C)';
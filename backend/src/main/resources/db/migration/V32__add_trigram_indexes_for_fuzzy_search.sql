@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_ut_name_trgm ON university_translations USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_epgt_name_trgm ON educational_program_group_translations USING GIN (name gin_trgm_ops);
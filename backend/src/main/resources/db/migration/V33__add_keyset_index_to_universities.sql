@@ -0,0 +1,4 @@
+UPDATE universities SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE universities ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX idx_universities_created_at_id ON universities(created_at DESC, id DESC);
@@ -0,0 +1,17 @@
+-- Оставляет в объекте переводов {"kk": {...}, "ru": {...}, "en": {...}} только первый
+-- найденный язык из списка предпочтений; пустой список - вернуть все переводы.
+CREATE OR REPLACE FUNCTION pick_translation(translations JSONB, langs TEXT[])
+RETURNS JSONB
+LANGUAGE sql
+IMMUTABLE
+AS $$
+    SELECT CASE
+        WHEN cardinality(langs) = 0 THEN translations
+        ELSE COALESCE((
+            SELECT jsonb_build_object(x.code, translations -> x.code)
+            FROM unnest(langs) WITH ORDINALITY AS x(code, position)
+            WHERE translations ? x.code
+            ORDER BY x.position
+            LIMIT 1), CAST('{}' AS JSONB))
+    END
+$$;
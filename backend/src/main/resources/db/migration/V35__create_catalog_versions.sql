@@ -0,0 +1,28 @@
+-- Версия каталога для ETag списков: увеличивается на любое изменение университетов или их переводов,
+-- поэтому условный GET проверяется одним чтением по первичному ключу без построения выдачи.
+CREATE TABLE catalog_versions (
+    name VARCHAR(50) PRIMARY KEY,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+INSERT INTO catalog_versions (name, version) VALUES ('universities', 0);
+
+CREATE OR REPLACE FUNCTION bump_catalog_version()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE catalog_versions SET version = version + 1 WHERE name = TG_ARGV[0];
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_universities_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE ON universities
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version('universities');
+
+CREATE TRIGGER trg_university_translations_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE ON university_translations
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version('universities');
+
+COMMENT ON TABLE catalog_versions IS 'Счётчики изменений каталогов, используются как ETag списков';
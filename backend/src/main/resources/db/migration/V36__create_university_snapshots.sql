@@ -0,0 +1,14 @@
+-- Опубликованные профили университетов: полный ответ, отрендеренный отдельно для каждого языка.
+-- Публичное чтение по (slug, language_code) - одно обращение по первичному ключу без JOIN-ов.
+CREATE TABLE university_snapshots (
+    slug VARCHAR(50) NOT NULL,
+    language_code VARCHAR(5) NOT NULL,
+    university_id BIGINT NOT NULL REFERENCES universities(id) ON DELETE CASCADE,
+    payload JSONB NOT NULL,
+    published_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (slug, language_code)
+);
+
+CREATE INDEX idx_university_snapshots_university_id ON university_snapshots(university_id);
+
+COMMENT ON TABLE university_snapshots IS 'Опубликованная версия профиля университета; редакторы продолжают менять живые таблицы как черновик';
@@ -0,0 +1,23 @@
+-- Переход с IDENTITY на пул-последовательности: Hibernate резервирует 50 ID за один nextval и может
+-- отправлять INSERT-ы пачками. Значение nextval - верхняя граница блока, поэтому последовательность
+-- выставляется на текущий MAX(id): следующий блок начнётся сразу после существующих строк.
+-- DEFAULT nextval у колонок остаётся, вставки из SQL по-прежнему получают уникальные ID.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'universities', 'university_translations', 'users',
+        'leadership', 'achievements', 'history_events', 'admission_rules', 'tuition_discounts',
+        'faculties', 'faculty_translations', 'departments', 'department_translations',
+        'educational_program_groups', 'educational_program_group_translations',
+        'educational_programs', 'educational_program_translations', 'passing_scores',
+        'international_sections', 'international_section_translations',
+        'international_items', 'international_item_translations'
+    ]
+    LOOP
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_id_seq');
+        EXECUTE format('SELECT setval(%L, GREATEST(COALESCE(MAX(id), 0), 1)) FROM %I', t || '_id_seq', t);
+    END LOOP;
+END
+$$;
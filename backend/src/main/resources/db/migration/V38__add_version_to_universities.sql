@@ -0,0 +1,6 @@
+-- Версия для оптимистической блокировки. Ведётся только у корня агрегата: любое изменение вложенных
+-- разделов (руководство, факультеты, правила приёма и т.д.) сохраняется вместе с университетом
+-- и увеличивает его версию, поэтому отдельные версии у дочерних таблиц не нужны.
+ALTER TABLE universities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN universities.version IS 'Версия агрегата университета для оптимистической блокировки';
@@ -0,0 +1,12 @@
+-- Ключи объектов в хранилище для логотипов и фотографий, которые раньше хранились в bytea.
+-- Старые колонки остаются до завершения переноса (BlobMigrationService) и удаляются отдельной миграцией.
+ALTER TABLE universities ADD COLUMN logo_key VARCHAR(500);
+ALTER TABLE leadership ADD COLUMN photo_key VARCHAR(500);
+ALTER TABLE history_events ADD COLUMN photo_key VARCHAR(500);
+ALTER TABLE faculties ADD COLUMN photo_key VARCHAR(500);
+ALTER TABLE departments ADD COLUMN photo_key VARCHAR(500);
+ALTER TABLE educational_program_groups ADD COLUMN photo_key VARCHAR(500);
+ALTER TABLE educational_programs ADD COLUMN photo_key VARCHAR(500);
+
+COMMENT ON COLUMN universities.logo_key IS 'Ключ объекта логотипа в хранилище';
+COMMENT ON COLUMN universities.logo IS 'Устарело: содержимое переносится в хранилище, см. logo_key';
@@ -0,0 +1,6 @@
+-- Ширины уменьшенных копий фотографии, которые уже сгенерированы и лежат в хранилище рядом с оригиналом.
+-- NULL - копии ещё не обработаны (их догоняет фоновая генерация), пустой массив - обработка завершена,
+-- но оригинал меньше самой узкой копии или не читается как изображение.
+ALTER TABLE universities ADD COLUMN photo_variant_widths INTEGER[];
+
+COMMENT ON COLUMN universities.photo_variant_widths IS 'Ширины сгенерированных копий фотографии (px)';
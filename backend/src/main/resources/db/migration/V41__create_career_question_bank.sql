@@ -0,0 +1,32 @@
+-- Банк заранее сгенерированных вопросов профориентационного теста.
+-- Ключ профиля - хэш отсортированного набора тегов ответов, пустая строка для пустого профиля.
+CREATE TABLE career_questions (
+    id BIGSERIAL PRIMARY KEY,
+    step INTEGER NOT NULL,
+    profile_key VARCHAR(64) NOT NULL,
+    question_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_career_questions_key ON career_questions (step, profile_key);
+CREATE INDEX idx_career_questions_created_at ON career_questions (created_at);
+
+-- Комбинации (шаг, профиль), для которых в банке не нашлось вопроса. Фоновое пополнение
+-- догенерирует для них вопросы; next_refill_at служит арендой, чтобы реплики не генерировали одно и то же.
+CREATE TABLE career_question_demand (
+    step INTEGER NOT NULL,
+    profile_key VARCHAR(64) NOT NULL,
+    profile_tags TEXT[] NOT NULL,
+    last_requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_refill_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (step, profile_key)
+);
+
+-- Первый шаг всегда начинается с пустого профиля, поэтому пополняется постоянно
+INSERT INTO career_question_demand (step, profile_key, profile_tags, last_requested_at)
+VALUES (0, '', '{}', 'infinity');
+
+COMMENT ON TABLE career_questions IS 'Банк вопросов профориентационного теста';
+COMMENT ON COLUMN career_questions.payload IS 'Вопрос в JSON-формате генератора';
+COMMENT ON TABLE career_question_demand IS 'Профили, для которых нужно пополнить банк вопросов';
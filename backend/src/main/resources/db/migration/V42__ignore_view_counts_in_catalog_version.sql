@@ -0,0 +1,15 @@
+-- Сброс просмотров обновляет view_count каждые несколько секунд, и триггер на любой UPDATE менял ETag
+-- каталога при каждом сбросе, а строка catalog_versions становилась точкой конкуренции за блокировку.
+-- Обновления теперь учитываются построчно и только если изменилось что-то кроме счётчика просмотров
+-- и времени изменения; вставка и удаление по-прежнему увеличивают версию один раз на оператор.
+DROP TRIGGER trg_universities_catalog_version ON universities;
+
+CREATE TRIGGER trg_universities_catalog_version
+    AFTER INSERT OR DELETE ON universities
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version('universities');
+
+CREATE TRIGGER trg_universities_catalog_version_update
+    AFTER UPDATE ON universities
+    FOR EACH ROW
+    WHEN (to_jsonb(OLD) - 'view_count' - 'updated_at' IS DISTINCT FROM to_jsonb(NEW) - 'view_count' - 'updated_at')
+    EXECUTE FUNCTION bump_catalog_version('universities');
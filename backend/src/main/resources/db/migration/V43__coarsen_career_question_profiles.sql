@@ -0,0 +1,12 @@
+-- Профиль банка вопросов теперь сокращается до нескольких самых частых тегов: точный набор тегов почти
+-- у каждого пользователя свой, банк почти не давал попаданий, а каждый промах запускал генерацию.
+-- Вопросы и спрос под старыми ключами больше недостижимы, поэтому удаляются.
+DELETE FROM career_questions WHERE profile_key <> '';
+DELETE FROM career_question_demand WHERE profile_key <> '';
+
+-- Пополняются только профили, которые запрашивались повторно
+ALTER TABLE career_question_demand ADD COLUMN request_count INTEGER NOT NULL DEFAULT 1;
+
+UPDATE career_question_demand SET request_count = 2147483647 WHERE step = 0 AND profile_key = '';
+
+COMMENT ON COLUMN career_question_demand.request_count IS 'Сколько раз для профиля не нашлось вопроса';
@@ -0,0 +1,20 @@
+-- Языки и роли читаются узлами один раз при старте, а меняются только миграциями или вручную.
+-- Любое изменение справочников объявляется в канале инвалидации, и узлы перечитывают их без перезапуска;
+-- уведомление доставляется после коммита, а одинаковые уведомления одной транзакции Postgres объединяет.
+CREATE OR REPLACE FUNCTION notify_reference_data_changed()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('oquga_invalidation', 'reference:0');
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_languages_reference_data
+    AFTER INSERT OR UPDATE OR DELETE ON languages
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_changed();
+
+CREATE TRIGGER trg_roles_reference_data
+    AFTER INSERT OR UPDATE OR DELETE ON roles
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_reference_data_changed();
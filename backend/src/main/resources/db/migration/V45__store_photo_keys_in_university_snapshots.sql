@@ -0,0 +1,15 @@
+-- Снимок хранит ключ фотографии, а ссылка на неё подписывается при каждой выдаче: подписанные ссылки
+-- истекают, а ключ остаётся действительным, пока объект не удалён.
+ALTER TABLE university_snapshots ADD COLUMN photo_key VARCHAR(500);
+
+-- в старых снимках ссылка уже подписана; лучшее, что можно сделать, - сослаться на текущую фотографию
+UPDATE university_snapshots s
+SET photo_key = u.photo_url
+FROM universities u
+WHERE u.id = s.university_id AND s.payload ->> 'photoUrl' IS NOT NULL;
+
+-- счётчик просмотров, прогресс заполнения и версия редактора не относятся к опубликованному профилю
+UPDATE university_snapshots
+SET payload = payload - 'photoUrl' - 'viewCount' - 'progress' - 'version';
+
+COMMENT ON COLUMN university_snapshots.photo_key IS 'Ключ фотографии в хранилище на момент публикации; объект не удаляется, пока на него ссылается снимок';
@@ -0,0 +1,105 @@
+package com.oquga.oquga.controller;
+
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@Transactional
+class UniversityConditionalGetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void universityIsRevalidatedWithEtag() throws Exception {
+        UniversityResponse university = createUniversity(universityService, "etag-university");
+        String path = "/api/v1/universities/" + university.id();
+
+        MockHttpServletResponse first = mockMvc.perform(get(path)).andReturn().getResponse();
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(first.getHeader(HttpHeaders.CACHE_CONTROL).contains("public"));
+
+        MockHttpServletResponse notModified = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+        assertEquals(304, notModified.getStatus());
+        assertEquals(etag, notModified.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, notModified.getHeaders(HttpHeaders.ETAG).size());
+        assertEquals("", notModified.getContentAsString());
+    }
+
+    @Test
+    void catalogEtagChangesWhenUniversityIsAdded() throws Exception {
+        createUniversity(universityService, "etag-catalog-1");
+        String etag = mockMvc.perform(get("/api/v1/universities")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(304, mockMvc.perform(get("/api/v1/universities").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse().getStatus());
+
+        createUniversity(universityService, "etag-catalog-2");
+        MockHttpServletResponse changed = mockMvc.perform(get("/api/v1/universities").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void catalogVersionIgnoresViewCountFlushes() {
+        Long id = createUniversity(universityService, "etag-views").id();
+        long version = universityService.getCatalogVersion();
+
+        universityRepository.addViewCounts(new Long[]{id}, new Long[]{5L});
+        assertEquals(version, universityService.getCatalogVersion());
+
+        jdbcTemplate.update("UPDATE universities SET contact_phone = '+7 727 000 00 00', updated_at = now() WHERE id = ?", id);
+        assertEquals(version + 1, universityService.getCatalogVersion());
+    }
+
+    @Test
+    void publicUniversityVersionIgnoresViewCountFlushes() {
+        Long id = createUniversity(universityService, "etag-university-views").id();
+        String version = universityService.getUniversityVersion(id).orElseThrow();
+        String detailVersion = universityService.getUniversityDetailVersion(id).orElseThrow();
+
+        universityRepository.addViewCounts(new Long[]{id}, new Long[]{5L});
+
+        assertEquals(version, universityService.getUniversityVersion(id).orElseThrow());
+        assertNotEquals(detailVersion, universityService.getUniversityDetailVersion(id).orElseThrow());
+    }
+}
@@ -0,0 +1,192 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.ai.req.ChatRequest;
+import com.oquga.oquga.dto.ai.res.ChatResponse;
+import com.oquga.oquga.service.AiService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {"ai.api-key=test-key", "application.ai.question-bank.enabled=false"})
+class AiChatStreamTest {
+
+    private static final HttpServer LLM_STUB;
+    private static volatile CountDownLatch release = new CountDownLatch(1);
+    private static volatile boolean hang;
+    private static volatile CountDownLatch upstreamClosed = new CountDownLatch(1);
+
+    static {
+        try {
+            // sends the first delta at once and the rest only when released, or keeps the stream open forever
+            LLM_STUB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            LLM_STUB.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            LLM_STUB.createContext("/v1/chat/completions", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    write(output, delta("Hel"));
+                    if (hang) {
+                        while (true) {
+                            write(output, ": keep-alive\n\n");
+                            Thread.sleep(50);
+                        }
+                    }
+                    release.await(10, TimeUnit.SECONDS);
+                    write(output, delta("lo"));
+                    write(output, "data: [DONE]\n\n");
+                } catch (IOException e) {
+                    upstreamClosed.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            LLM_STUB.start();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void llmStub(DynamicPropertyRegistry registry) {
+        registry.add("ai.base-url", () -> "http://127.0.0.1:" + LLM_STUB.getAddress().getPort() + "/v1");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        release.countDown();
+        LLM_STUB.stop(0);
+    }
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        release = new CountDownLatch(1);
+        upstreamClosed = new CountDownLatch(1);
+        hang = false;
+    }
+
+    @Test
+    void deltasReachTheListenerBeforeTheModelFinishes() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        aiService.streamChat(chatRequest(), listener);
+
+        // the stub holds back the rest of the answer, so this delta was forwarded unbuffered
+        assertEquals("Hel", listener.deltas.poll(5, TimeUnit.SECONDS));
+        assertFalse(listener.completed.isDone());
+
+        release.countDown();
+        assertEquals("Hello", listener.completed.get(5, TimeUnit.SECONDS).message());
+        assertEquals("lo", listener.deltas.poll());
+    }
+
+    @Test
+    void cancellingTheStreamAbortsTheUpstreamCall() throws Exception {
+        hang = true;
+        RecordingListener listener = new RecordingListener();
+        Runnable cancel = aiService.streamChat(chatRequest(), listener);
+        assertEquals("Hel", listener.deltas.poll(5, TimeUnit.SECONDS));
+
+        cancel.run();
+
+        assertTrue(upstreamClosed.await(5, TimeUnit.SECONDS), "upstream connection was left open");
+        assertFalse(listener.completed.isDone());
+    }
+
+    @Test
+    void clientGoneAbortsTheUpstreamCall() throws Exception {
+        hang = true;
+        aiService.streamChat(chatRequest(), new RecordingListener() {
+            @Override
+            public void onDelta(String content) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        assertTrue(upstreamClosed.await(5, TimeUnit.SECONDS), "upstream connection was left open");
+    }
+
+    @Test
+    void endpointStreamsServerSentEvents() throws Exception {
+        release.countDown();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/ai/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"messages\":[{\"role\":\"user\",\"content\":\"Привет\"}]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertTrue(body.indexOf("event:delta\ndata:{\"content\":\"Hel\"}") < body.indexOf("event:done"), body);
+        assertTrue(body.contains("\"message\":\"Hello\""), body);
+    }
+
+    private static ChatRequest chatRequest() {
+        return new ChatRequest(List.of(new ChatRequest.MessageDto("user", "Привет")), null, null);
+    }
+
+    private static String delta(String content) {
+        return "data: {\"choices\":[{\"delta\":{\"content\":\"" + content + "\"}}]}\n\n";
+    }
+
+    private static void write(OutputStream output, String chunk) throws IOException {
+        output.write(chunk.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    private static class RecordingListener implements AiService.ChatStreamListener {
+
+        final BlockingQueue<String> deltas = new LinkedBlockingQueue<>();
+        final CompletableFuture<ChatResponse> completed = new CompletableFuture<>();
+
+        @Override
+        public void onDelta(String content) throws IOException {
+            deltas.add(content);
+        }
+
+        @Override
+        public void onComplete(ChatResponse response) {
+            completed.complete(response);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            completed.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.ai.req.ChatRequest;
+import com.oquga.oquga.dto.ai.res.ChatResponse;
+import com.oquga.oquga.service.AiService;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// not @Transactional: the point is which connections the AI flow checks out on its own
+@SpringBootTest(properties = {"ai.api-key=test-key", "ai.max-concurrent-calls=60", "application.ai.question-bank.enabled=false"})
+class AiServiceImplTest {
+
+    private static final int HANGING_CALLS = 50;
+
+    private static final HttpServer LLM_STUB;
+    private static final AtomicInteger RECEIVED = new AtomicInteger();
+    private static volatile CountDownLatch release = new CountDownLatch(1);
+
+    static {
+        try {
+            // answers only once released, like a model that takes minutes to respond
+            LLM_STUB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            LLM_STUB.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            LLM_STUB.createContext("/v1/chat/completions", exchange -> {
+                RECEIVED.incrementAndGet();
+                try {
+                    release.await(60, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = """
+                        {"choices":[{"message":{"role":"assistant","content":"Привет!"}}]}
+                        """.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            });
+            LLM_STUB.start();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void llmStub(DynamicPropertyRegistry registry) {
+        registry.add("ai.base-url", () -> "http://127.0.0.1:" + LLM_STUB.getAddress().getPort() + "/v1");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        release.countDown();
+        LLM_STUB.stop(0);
+    }
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        RECEIVED.set(0);
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    void catalogKeepsServingWhileChatCallsHang() throws Exception {
+        ExecutorService chats = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<ChatResponse>> pending = new ArrayList<>();
+            for (int i = 0; i < HANGING_CALLS; i++) {
+                pending.add(chats.submit(() -> aiService.chat(chatRequest())));
+            }
+            waitFor(() -> RECEIVED.get() == HANGING_CALLS);
+
+            // every chat call is now parked on the model; none of them may hold a pooled connection
+            assertEquals(0, ((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections());
+            for (int i = 0; i < 30; i++) {
+                long started = System.nanoTime();
+                int status = mockMvc.perform(get("/api/v1/universities")).andReturn().getResponse().getStatus();
+                assertEquals(200, status);
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 2000,
+                        "catalog request waited for a connection");
+            }
+            assertEquals(HANGING_CALLS, (int) meterRegistry.get("ai.llm.in_flight").gauge().value());
+
+            release.countDown();
+            for (Future<ChatResponse> chat : pending) {
+                assertEquals("Привет!", chat.get(30, TimeUnit.SECONDS).message());
+            }
+            assertEquals(0, (int) meterRegistry.get("ai.llm.in_flight").gauge().value());
+            assertEquals(0, meterRegistry.get("ai.llm.in_transaction").counter().count());
+        } finally {
+            release.countDown();
+            chats.shutdownNow();
+        }
+    }
+
+    @Test
+    void callsOverTheLimitAreRefusedImmediately() throws Exception {
+        double rejectedBefore = meterRegistry.get("ai.llm.rejected").counter().count();
+        ExecutorService chats = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<ChatResponse>> pending = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                pending.add(chats.submit(() -> aiService.chat(chatRequest())));
+            }
+            waitFor(() -> RECEIVED.get() == 60);
+
+            long started = System.nanoTime();
+            ChatResponse refused = aiService.chat(chatRequest());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1000);
+            assertTrue(refused.message().contains("перегружен"));
+            assertEquals(rejectedBefore + 1, meterRegistry.get("ai.llm.rejected").counter().count());
+
+            release.countDown();
+            for (Future<ChatResponse> chat : pending) {
+                chat.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            release.countDown();
+            chats.shutdownNow();
+        }
+    }
+
+    private static ChatRequest chatRequest() {
+        return new ChatRequest(List.of(new ChatRequest.MessageDto("user", "Привет, расскажи про КазНУ")), null, null);
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out, the stub received " + RECEIVED.get() + " calls");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.addFaculty;
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BlobMigrationServiceImplTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d};
+    private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0, 0, 0x10, 'J', 'F', 'I', 'F', 0};
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    private final InMemoryStorageService storage = new InMemoryStorageService();
+
+    @Test
+    void blobsMoveToStorageInBatchesAndAreCleared() {
+        List<Long> universityIds = List.of(
+                createUniversity(universityService, "blob-university-1").id(),
+                createUniversity(universityService, "blob-university-2").id(),
+                createUniversity(universityService, "blob-university-3").id());
+        for (Long id : universityIds) {
+            jdbcTemplate.update("UPDATE universities SET logo = ? WHERE id = ?", PNG, id);
+        }
+        Long facultyId = addFaculty(universityService, universityIds.getFirst(), adminEmail);
+        jdbcTemplate.update("UPDATE faculties SET photo = ? WHERE id = ?", JPEG, facultyId);
+
+        // a batch size below the row count makes the job loop over several batches of the same table
+        BlobMigrationServiceImpl migration = new BlobMigrationServiceImpl(jdbcTemplate, transactionManager, storage, false, 2);
+        migration.migrateAll();
+
+        for (Long id : universityIds) {
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT logo, logo_key FROM universities WHERE id = ?", id);
+            assertNull(row.get("logo"));
+            String key = (String) row.get("logo_key");
+            assertArrayEquals(PNG, storage.objects.get(key));
+            assertEquals("image/png", storage.contentTypes.get(key));
+        }
+        Map<String, Object> faculty = jdbcTemplate.queryForMap("SELECT photo, photo_key FROM faculties WHERE id = ?", facultyId);
+        assertNull(faculty.get("photo"));
+        assertArrayEquals(JPEG, storage.objects.get((String) faculty.get("photo_key")));
+        assertEquals("image/jpeg", storage.contentTypes.get((String) faculty.get("photo_key")));
+
+        assertEquals(0, migration.migrateAll());
+        assertEquals(4, storage.objects.size());
+    }
+
+    @Test
+    void rowMigratedElsewhereDuringTheUploadKeepsTheOtherKey() {
+        Long id = createUniversity(universityService, "blob-university-race").id();
+        jdbcTemplate.update("UPDATE universities SET logo = ? WHERE id = ?", PNG, id);
+        // another replica records its key while this one is still uploading
+        InMemoryStorageService racingStorage = new InMemoryStorageService() {
+            @Override
+            public String upload(InputStream content, long size, String contentType, String folder) {
+                String key = super.upload(content, size, contentType, folder);
+                jdbcTemplate.update("UPDATE universities SET logo_key = 'universities/logos/other', logo = NULL WHERE id = ?", id);
+                return key;
+            }
+        };
+
+        BlobMigrationServiceImpl migration = new BlobMigrationServiceImpl(jdbcTemplate, transactionManager, racingStorage, false, 20);
+
+        assertEquals(0, migration.migrateAll());
+        assertEquals("universities/logos/other",
+                jdbcTemplate.queryForObject("SELECT logo_key FROM universities WHERE id = ?", String.class, id));
+        assertTrue(racingStorage.objects.isEmpty());
+    }
+}
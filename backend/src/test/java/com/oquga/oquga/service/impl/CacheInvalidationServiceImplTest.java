@@ -0,0 +1,125 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.event.CacheInvalidationEvent;
+import com.oquga.oquga.service.CacheInvalidationService;
+import com.oquga.oquga.service.ReferenceDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CacheInvalidationServiceImplTest {
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventCollector eventCollector;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @BeforeEach
+    void setUp() {
+        eventCollector.events.clear();
+    }
+
+    @Test
+    void notificationIsDeliveredAsLocalEvent() throws Exception {
+        CacheInvalidationEvent received = null;
+        // the listener connects asynchronously after startup, so repeat until it is subscribed
+        for (int attempt = 0; attempt < 25 && received == null; attempt++) {
+            cacheInvalidationService.publish(CacheInvalidationEvent.UNIVERSITY, 42L);
+            received = eventCollector.events.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        assertNotNull(received);
+        assertEquals(CacheInvalidationEvent.UNIVERSITY, received.entity());
+        assertEquals(42L, received.id());
+        assertTrue(received.echo());
+    }
+
+    @Test
+    void notificationFromAnotherNodeIsNoEcho() throws Exception {
+        notificationIsDeliveredAsLocalEvent();
+        eventCollector.events.clear();
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CacheInvalidationServiceImpl.CHANNEL, "university:42:other-node");
+
+        CacheInvalidationEvent received = eventCollector.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(received);
+        assertEquals(42L, received.id());
+        assertFalse(received.echo());
+    }
+
+    @Test
+    void lostConnectionIsFollowedByFullFlush() throws Exception {
+        notificationIsDeliveredAsLocalEvent();
+        eventCollector.events.clear();
+
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                CacheInvalidationServiceImpl.LISTENER_APPLICATION_NAME);
+
+        CacheInvalidationEvent received = eventCollector.events.poll(15, TimeUnit.SECONDS);
+        assertNotNull(received);
+        assertTrue(received.isFullFlush());
+    }
+
+    @Test
+    void languageChangeReloadsReferenceData() throws Exception {
+        notificationIsDeliveredAsLocalEvent();
+        eventCollector.events.clear();
+
+        jdbcTemplate.update("INSERT INTO languages (code, name, native_name) VALUES ('uz', 'Uzbek', 'Oʻzbekcha')");
+        try {
+            CacheInvalidationEvent received = eventCollector.events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(received);
+            assertEquals(CacheInvalidationEvent.REFERENCE, received.entity());
+            assertEquals(List.of("kk", "ru", "en", "uz"), referenceDataService.getLanguageCodes());
+            assertEquals(jdbcTemplate.queryForObject("SELECT id FROM languages WHERE code = 'uz'", Long.class),
+                    referenceDataService.getLanguage("uz").getId());
+        } finally {
+            jdbcTemplate.update("DELETE FROM languages WHERE code = 'uz'");
+        }
+
+        assertNotNull(eventCollector.events.poll(5, TimeUnit.SECONDS));
+        assertFalse(referenceDataService.getLanguageCodes().contains("uz"));
+    }
+
+    @TestConfiguration
+    static class EventCollectorConfig {
+
+        @Bean
+        EventCollector eventCollector() {
+            return new EventCollector();
+        }
+    }
+
+    static class EventCollector {
+
+        private final BlockingQueue<CacheInvalidationEvent> events = new LinkedBlockingQueue<>();
+
+        @EventListener
+        void onCacheInvalidation(CacheInvalidationEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.ai.res.ChatResponse;
+import com.oquga.oquga.service.AiService;
+import com.oquga.oquga.service.CareerQuestionBankService;
+import com.oquga.oquga.service.CareerQuestionBankService.RefillTarget;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not @Transactional: the bank keeps an in-memory copy that must match committed rows
+@SpringBootTest(properties = {
+        "ai.api-key=test-key",
+        "application.ai.question-bank.refill-initial-delay=1h",
+        "application.ai.question-bank.refill-max-calls=6"
+})
+class CareerQuestionBankServiceImplTest {
+
+    private static final String GENERATED_QUESTION = """
+            {"type":"versus_choice","questionId":"q-generated","question":"Город или природа?","stage":"Ценности",
+             "options":[{"id":"city","label":"Город"},{"id":"nature","label":"Природа"}]}
+            """;
+
+    private static final HttpServer LLM_STUB;
+    private static final AtomicInteger RECEIVED = new AtomicInteger();
+    private static volatile CountDownLatch gate;
+
+    static {
+        try {
+            LLM_STUB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            LLM_STUB.createContext("/v1/chat/completions", exchange -> {
+                RECEIVED.incrementAndGet();
+                CountDownLatch current = gate;
+                if (current != null) {
+                    try {
+                        current.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                String content = GENERATED_QUESTION.strip().replace("\n", " ").replace("\"", "\\\"");
+                byte[] body = ("{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"}}]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            });
+            LLM_STUB.start();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void llmStub(DynamicPropertyRegistry registry) {
+        registry.add("ai.base-url", () -> "http://127.0.0.1:" + LLM_STUB.getAddress().getPort() + "/v1");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        LLM_STUB.stop(0);
+    }
+
+    @Autowired
+    private CareerQuestionBankService questionBank;
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private AiServiceImpl aiServiceImpl;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyBank() {
+        jdbcTemplate.update("DELETE FROM career_questions");
+        jdbcTemplate.update("DELETE FROM career_question_demand WHERE NOT (step = 0 AND profile_key = '')");
+        jdbcTemplate.update("UPDATE career_question_demand SET next_refill_at = LOCALTIMESTAMP");
+        questionBank.reload();
+        RECEIVED.set(0);
+    }
+
+    @Test
+    void bankedFirstQuestionIsServedWithoutCallingTheModel() {
+        questionBank.add(0, List.of(), "scenario_choice", """
+                {"type":"scenario_choice","questionId":"q-banked","question":"Каким будет твой идеальный день?",
+                 "options":[{"id":"lab","label":"В лаборатории"},{"id":"stage","label":"На сцене"}]}
+                """);
+
+        ChatResponse response = aiService.startCareerTest("bank-session-1");
+
+        assertNotNull(response.interactive());
+        assertEquals("q-banked", response.interactive().questionId());
+        assertEquals(0, RECEIVED.get());
+    }
+
+    @Test
+    void lookupIgnoresTagOrderAndSkipsUsedTypes() {
+        questionBank.add(3, List.of("b", "a", "a"), "swipe_cards", GENERATED_QUESTION);
+
+        assertTrue(questionBank.pick(3, List.of("a", "b"), List.of()).isPresent());
+        assertTrue(questionBank.pick(3, List.of("a", "b"), List.of("swipe_cards")).isEmpty());
+        assertTrue(questionBank.pick(3, List.of("a"), List.of()).isEmpty());
+        assertTrue(questionBank.pick(4, List.of("a", "b"), List.of()).isEmpty());
+    }
+
+    @Test
+    void liveQuestionIsBankedAndItsProfileRefilledToTarget() {
+        aiService.startCareerTest("bank-session-2");
+        assertEquals(1, RECEIVED.get());
+        assertEquals(1, count("SELECT count(*) FROM career_questions WHERE step = 0"));
+
+        int generated = aiService.refillQuestionBank();
+
+        assertEquals(4, generated);
+        assertEquals(5, count("SELECT count(*) FROM career_questions WHERE step = 0"));
+        // the profile is stocked and leased, so neither this node nor another claims it again
+        assertTrue(questionBank.claimRefillTargets().isEmpty());
+    }
+
+    @Test
+    void scheduledRefillLeavesTheSchedulerThreadFree() throws InterruptedException {
+        aiService.startCareerTest("bank-session-3");
+        CountDownLatch release = new CountDownLatch(1);
+        gate = release;
+        try {
+            // returns while the first refill call is still waiting on the model
+            aiServiceImpl.scheduleRefill();
+            waitFor(() -> RECEIVED.get() == 2);
+            aiServiceImpl.scheduleRefill();
+        } finally {
+            gate = null;
+            release.countDown();
+        }
+
+        waitFor(() -> count("SELECT count(*) FROM career_questions WHERE step = 0") == 5);
+        assertEquals(5, RECEIVED.get());
+    }
+
+    @Test
+    void profilesSharingTheirMostFrequentTagsShareQuestions() {
+        questionBank.add(3, List.of("it", "it", "math", "math", "art", "sport"), "swipe_cards", GENERATED_QUESTION);
+
+        assertTrue(questionBank.pick(3, List.of("math", "it", "art", "music", "it", "math"), List.of()).isPresent());
+        assertTrue(questionBank.pick(3, List.of("it", "math", "sport", "sport", "sport"), List.of()).isEmpty());
+    }
+
+    @Test
+    void onlyRepeatedDemandIsRefilled() {
+        questionBank.recordMiss(2, List.of("x"));
+        assertTrue(questionBank.claimRefillTargets().stream().noneMatch(t -> t.step() == 2));
+
+        questionBank.recordMiss(2, List.of("x"));
+        assertEquals(1, questionBank.claimRefillTargets().stream().filter(t -> t.step() == 2).count());
+    }
+
+    @Test
+    void refillStopsAtTheCallBudget() {
+        jdbcTemplate.update("UPDATE career_question_demand SET next_refill_at = 'infinity'");
+        for (String tag : List.of("x", "y")) {
+            questionBank.recordMiss(5, List.of(tag));
+            questionBank.recordMiss(5, List.of(tag));
+        }
+
+        assertEquals(6, aiService.refillQuestionBank());
+        assertEquals(6, RECEIVED.get());
+    }
+
+    @Test
+    void claimedProfilesAreLeasedToOneNode() {
+        questionBank.recordMiss(2, List.of("y", "x"));
+        questionBank.recordMiss(2, List.of("x", "y"));
+
+        List<RefillTarget> targets = questionBank.claimRefillTargets().stream().filter(t -> t.step() == 2).toList();
+
+        assertEquals(1, targets.size());
+        assertEquals(List.of("x", "y"), targets.getFirst().profileTags());
+        assertEquals(5, targets.getFirst().missing());
+        assertTrue(questionBank.claimRefillTargets().stream().noneMatch(t -> t.step() == 2));
+    }
+
+    @Test
+    void questionsPastMaximumAgeAreRetired() {
+        jdbcTemplate.update("""
+                INSERT INTO career_questions (step, profile_key, question_type, payload, created_at)
+                VALUES (0, '', 'versus_choice', ?, LOCALTIMESTAMP - INTERVAL '8 days')
+                """, GENERATED_QUESTION);
+        questionBank.reload();
+        assertTrue(questionBank.pick(0, List.of(), List.of()).isEmpty());
+
+        questionBank.claimRefillTargets();
+
+        assertEquals(0, count("SELECT count(*) FROM career_questions"));
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out, the stub received " + RECEIVED.get() + " calls");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
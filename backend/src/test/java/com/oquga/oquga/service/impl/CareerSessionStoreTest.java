@@ -0,0 +1,157 @@
+package com.oquga.oquga.service.impl;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.fppt.jedismock.RedisServer;
+import com.oquga.oquga.service.CareerSessionStore;
+import com.oquga.oquga.service.CareerSessionStore.CareerSession;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers both session stores; the Redis one runs as two instances, standing in for two replicas.
+ */
+class CareerSessionStoreTest {
+
+    private static final int THREADS = 4;
+    private static final int ANSWERS_PER_THREAD = 50;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisCareerSessionStore firstNode;
+    private RedisCareerSessionStore secondNode;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory.getConnection().serverCommands().flushAll();
+        firstNode = newRedisNode();
+        secondNode = newRedisNode();
+    }
+
+    @Test
+    void sessionStartedOnOneNodeContinuesOnAnother() {
+        firstNode.save(CareerSession.start("s1", 0));
+        firstNode.update("s1", s -> s.withAnswer(List.of("it")));
+
+        CareerSession session = secondNode.update("s1", s -> s.withAnswer(List.of("math_high")).withQuestionType("quiz"));
+
+        assertEquals(2, session.questionIndex());
+        assertEquals(List.of("it", "math_high"), session.profile());
+        assertEquals(session, firstNode.get("s1").orElseThrow());
+
+        secondNode.remove("s1");
+        assertTrue(firstNode.get("s1").isEmpty());
+    }
+
+    @Test
+    void concurrentRedisUpdatesAreNotLost() throws Exception {
+        firstNode.save(CareerSession.start("s1", 0));
+
+        answerConcurrently(firstNode, secondNode);
+
+        CareerSession session = secondNode.get("s1").orElseThrow();
+        assertEquals(THREADS * ANSWERS_PER_THREAD, session.questionIndex());
+        assertEquals(THREADS * ANSWERS_PER_THREAD, session.profile().size());
+    }
+
+    @Test
+    void redisSessionsExpireAfterTtl() {
+        firstNode.save(CareerSession.start("s1", 0));
+
+        Long ttl = new StringRedisTemplate(connectionFactory).getExpire("oquga:career-session:s1");
+        assertTrue(ttl != null && ttl > 0 && ttl <= 60, "TTL was " + ttl);
+    }
+
+    @Test
+    void concurrentInMemoryUpdatesAreNotLost() throws Exception {
+        InMemoryCareerSessionStore store = new InMemoryCareerSessionStore(100, Duration.ofMinutes(1));
+        store.save(CareerSession.start("s1", 0));
+
+        answerConcurrently(store, store);
+
+        assertEquals(THREADS * ANSWERS_PER_THREAD, store.get("s1").orElseThrow().questionIndex());
+    }
+
+    @Test
+    void inMemoryStoreIsBoundedAndEvictsIdleSessions() {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = nanos::get;
+        InMemoryCareerSessionStore store = new InMemoryCareerSessionStore(10, Duration.ofMinutes(30), ticker);
+
+        for (int i = 0; i < 100; i++) {
+            store.save(CareerSession.start("s" + i, 0));
+        }
+        store.cleanUp();
+        long retained = IntStream.range(0, 100).filter(i -> store.get("s" + i).isPresent()).count();
+        assertTrue(retained <= 10, "retained " + retained + " sessions");
+
+        store.save(CareerSession.start("idle", 0));
+        store.save(CareerSession.start("active", 0));
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+        assertTrue(store.get("active").isPresent());
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+
+        assertFalse(store.get("idle").isPresent());
+        assertTrue(store.get("active").isPresent());
+    }
+
+    private void answerConcurrently(CareerSessionStore first, CareerSessionStore second) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                CareerSessionStore store = t % 2 == 0 ? first : second;
+                String tag = "t" + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ANSWERS_PER_THREAD; i++) {
+                        store.update("s1", s -> s.withAnswer(List.of(tag)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RedisCareerSessionStore newRedisNode() {
+        return new RedisCareerSessionStore(new StringRedisTemplate(connectionFactory), JsonMapper.builder().build(),
+                Duration.ofMinutes(1));
+    }
+}
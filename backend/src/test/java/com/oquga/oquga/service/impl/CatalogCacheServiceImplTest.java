@@ -0,0 +1,126 @@
+package com.oquga.oquga.service.impl;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.oquga.oquga.dto.university.res.UniversityListResponse;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs two cache instances, standing in for two replicas, against an in-process Redis server.
+ */
+class CatalogCacheServiceImplTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private CatalogCacheServiceImpl firstNode;
+    private CatalogCacheServiceImpl secondNode;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory.getConnection().serverCommands().flushAll();
+        firstNode = newNode();
+        secondNode = newNode();
+    }
+
+    @Test
+    void entryLoadedOnOneNodeIsServedByAnother() {
+        AtomicInteger loads = new AtomicInteger();
+        UniversityListResponse page = samplePage();
+
+        UniversityListResponse first = firstNode.getCatalogEntry(3L, "list:1", UniversityListResponse.class, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        UniversityListResponse second = secondNode.getCatalogEntry(3L, "list:1", UniversityListResponse.class, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(page, first);
+        assertEquals(page, second);
+    }
+
+    @Test
+    void newVersionMissesOnEveryNode() {
+        AtomicInteger loads = new AtomicInteger();
+        secondNode.getUniversityEntry(7L, "7-100", "summary", String.class, () -> "v" + loads.incrementAndGet());
+        assertEquals("v1", firstNode.getUniversityEntry(7L, "7-100", "summary", String.class, () -> "changed"));
+
+        // the version read after a commit; nothing has to be told about the write
+        assertEquals("v2", secondNode.getUniversityEntry(7L, "7-200", "summary", String.class, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", firstNode.getUniversityEntry(7L, "7-200", "summary", String.class, () -> "changed"));
+        assertEquals("other", firstNode.getUniversityEntry(8L, "8-100", "summary", String.class, () -> "other"));
+    }
+
+    @Test
+    void bodyIsNeverServedUnderAnotherVersion() {
+        // a request that still holds the old version keeps getting the body of that version
+        firstNode.getCatalogEntry(3L, "list:1", String.class, () -> "old");
+        assertEquals("new", secondNode.getCatalogEntry(4L, "list:1", String.class, () -> "new"));
+
+        assertEquals("old", secondNode.getCatalogEntry(3L, "list:1", String.class, () -> "changed"));
+        assertEquals("new", firstNode.getCatalogEntry(4L, "list:1", String.class, () -> "changed"));
+    }
+
+    @Test
+    void summaryAndDetailOfOneUniversityDoNotCollide() {
+        firstNode.getUniversityEntry(7L, "7-100", "summary:[ru]", String.class, () -> "summary");
+        firstNode.getUniversityEntry(7L, "7-100-42", "detail:[ru]", String.class, () -> "detail");
+
+        assertEquals("summary", secondNode.getUniversityEntry(7L, "7-100", "summary:[ru]", String.class, () -> "changed"));
+        assertEquals("detail", secondNode.getUniversityEntry(7L, "7-100-42", "detail:[ru]", String.class, () -> "changed"));
+    }
+
+    private CatalogCacheServiceImpl newNode() {
+        RedisTemplate<String, byte[]> binaryTemplate = new RedisTemplate<>();
+        binaryTemplate.setConnectionFactory(connectionFactory);
+        binaryTemplate.setKeySerializer(RedisSerializer.string());
+        binaryTemplate.setValueSerializer(RedisSerializer.byteArray());
+        binaryTemplate.setEnableDefaultSerializer(false);
+        binaryTemplate.afterPropertiesSet();
+        return new CatalogCacheServiceImpl(binaryTemplate, true, Duration.ofMinutes(5), Duration.ofMinutes(30), 100);
+    }
+
+    private static UniversityListResponse samplePage() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        UniversityResponse university = new UniversityResponse(
+                1L, "kaznu", null, Map.of(), "https://kaznu.kz", null, 1934, null, null, 42L,
+                Map.of("ru", new UniversityResponse.TranslationDto("КазНУ", null, "Описание", "Алматы", true)),
+                80, now, now);
+        return new UniversityListResponse(List.of(university),
+                new UniversityListResponse.MetaDto(1L, 1, 10, 1, null));
+    }
+}
@@ -0,0 +1,90 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.service.StorageService;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps objects in memory so storage-dependent services can be tested without MinIO.
+ */
+class InMemoryStorageService implements StorageService {
+
+    final Map<String, byte[]> objects = new LinkedHashMap<>();
+    final Map<String, String> contentTypes = new LinkedHashMap<>();
+
+    @Override
+    public String upload(MultipartFile file, String folder) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String upload(InputStream content, long size, String contentType, String folder) {
+        String key = folder + "/" + objects.size();
+        put(key, content, size, contentType);
+        return key;
+    }
+
+    @Override
+    public void put(String objectName, InputStream content, long size, String contentType) {
+        try {
+            objects.put(objectName, content.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        contentTypes.put(objectName, contentType);
+    }
+
+    void put(String objectName, byte[] content) {
+        objects.put(objectName, content);
+    }
+
+    @Override
+    public PresignedUpload presignUpload(String objectName, String contentType, long maxSize, Duration ttl) {
+        return new PresignedUpload("memory://bucket", Map.of("key", objectName, "Content-Type", contentType),
+                Instant.now().plus(ttl));
+    }
+
+    @Override
+    public long getSize(String objectName) {
+        return content(objectName).length;
+    }
+
+    @Override
+    public byte[] readHead(String objectName, int length) {
+        byte[] content = content(objectName);
+        return Arrays.copyOf(content, Math.min(length, content.length));
+    }
+
+    @Override
+    public void delete(String objectName) {
+        objects.remove(objectName);
+        contentTypes.remove(objectName);
+    }
+
+    @Override
+    public String getFileUrl(String objectName) {
+        return objectName;
+    }
+
+    @Override
+    public InputStream getFile(String objectName) {
+        return new ByteArrayInputStream(content(objectName));
+    }
+
+    private byte[] content(String objectName) {
+        byte[] content = objects.get(objectName);
+        if (content == null) {
+            throw new IllegalArgumentException("File not found: " + objectName);
+        }
+        return content;
+    }
+}
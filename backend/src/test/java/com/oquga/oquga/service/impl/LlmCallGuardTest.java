@@ -0,0 +1,205 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.config.AiConfig;
+import com.oquga.oquga.dto.ai.req.ChatRequest;
+import com.oquga.oquga.dto.ai.res.ChatResponse;
+import com.oquga.oquga.service.AiService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the AI service against a local LLM stub that can be switched to fail or to stall.
+ */
+@SpringBootTest(properties = {
+        "ai.api-key=test-key",
+        "application.ai.question-bank.enabled=false",
+        "ai.chat-timeout=300ms",
+        "ai.breaker.window-size=4",
+        "ai.breaker.minimum-calls=4",
+        "ai.breaker.open-duration=500ms"
+})
+class LlmCallGuardTest {
+
+    enum Fault {
+        NONE, SERVER_ERROR, STALL
+    }
+
+    private static final HttpServer LLM_STUB;
+    private static final AtomicInteger RECEIVED = new AtomicInteger();
+    private static volatile Fault fault = Fault.NONE;
+
+    static {
+        try {
+            LLM_STUB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            LLM_STUB.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            LLM_STUB.createContext("/v1/chat/completions", exchange -> {
+                RECEIVED.incrementAndGet();
+                try {
+                    if (fault == Fault.SERVER_ERROR) {
+                        exchange.sendResponseHeaders(503, -1);
+                        return;
+                    }
+                    if (fault == Fault.STALL) {
+                        Thread.sleep(2000);
+                    }
+                    byte[] body = """
+                            {"choices":[{"message":{"role":"assistant","content":"Привет!"}}]}
+                            """.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream output = exchange.getResponseBody()) {
+                        output.write(body);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    // the client gave up on a stalled call
+                } finally {
+                    exchange.close();
+                }
+            });
+            LLM_STUB.start();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void llmStub(DynamicPropertyRegistry registry) {
+        registry.add("ai.base-url", () -> "http://127.0.0.1:" + LLM_STUB.getAddress().getPort() + "/v1");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        LLM_STUB.stop(0);
+    }
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // leaves the breaker closed for the next test
+    @AfterEach
+    void recover() throws Exception {
+        fault = Fault.NONE;
+        Thread.sleep(600);
+        aiService.chat(chatRequest());
+        assertEquals(0.0, gauge("ai.llm.breaker.state"));
+    }
+
+    @Test
+    void failingProviderOpensTheBreakerAndCallsFailFast() throws Exception {
+        fault = Fault.SERVER_ERROR;
+        for (int i = 0; i < 4; i++) {
+            assertTrue(aiService.chat(chatRequest()).message().contains("перегружен"));
+        }
+        assertEquals(2.0, gauge("ai.llm.breaker.state"));
+        assertTrue(gauge("ai.llm.limit") < 10, "limit did not back off");
+
+        int received = RECEIVED.get();
+        double shortCircuited = meterRegistry.get("ai.llm.short_circuited").counter().count();
+        long started = System.nanoTime();
+        ChatResponse refused = aiService.chat(chatRequest());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 100);
+        assertTrue(refused.message().contains("перегружен"));
+        assertEquals(received, RECEIVED.get());
+        assertEquals(shortCircuited + 1, meterRegistry.get("ai.llm.short_circuited").counter().count());
+    }
+
+    @Test
+    void breakerClosesAgainAfterSuccessfulTrialCall() throws Exception {
+        fault = Fault.SERVER_ERROR;
+        for (int i = 0; i < 4; i++) {
+            aiService.chat(chatRequest());
+        }
+        assertEquals(2.0, gauge("ai.llm.breaker.state"));
+
+        fault = Fault.NONE;
+        Thread.sleep(600);
+        assertEquals(1.0, gauge("ai.llm.breaker.state"));
+
+        assertEquals("Привет!", aiService.chat(chatRequest()).message());
+        assertEquals(0.0, gauge("ai.llm.breaker.state"));
+    }
+
+    @Test
+    void stalledCallIsCutOffAtTheTaskDeadline() throws Exception {
+        fault = Fault.STALL;
+        double failures = meterRegistry.get("ai.llm.failures").counter().count();
+
+        long started = System.nanoTime();
+        ChatResponse response = aiService.chat(chatRequest());
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(elapsed < 1500, "chat waited " + elapsed + " ms for a stalled model");
+        assertTrue(response.message().contains("перегружен"));
+        assertEquals(failures + 1, meterRegistry.get("ai.llm.failures").counter().count());
+    }
+
+    @Test
+    void slowButSuccessfulAnalysisKeepsTheLimit() throws Exception {
+        AiConfig config = new AiConfig();
+        config.setChatTimeout(Duration.ofMillis(200));
+        config.setAnalysisTimeout(Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LlmCallGuard guard = new LlmCallGuard(config, registry);
+
+        for (int i = 0; i < 3; i++) {
+            LlmCallGuard.Permit analysis = guard.acquire(LlmCallGuard.Task.ANALYSIS);
+            Thread.sleep(150);
+            analysis.success();
+        }
+        assertEquals(10.0, registry.get("ai.llm.limit").gauge().value());
+
+        // the same duration is most of a chat's deadline, which does point at a struggling provider
+        LlmCallGuard.Permit chat = guard.acquire(LlmCallGuard.Task.CHAT);
+        Thread.sleep(150);
+        chat.success();
+        assertEquals(7.5, registry.get("ai.llm.limit").gauge().value());
+    }
+
+    @Test
+    void streamOutcomesLeaveTheBlockingLimitAlone() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LlmCallGuard guard = new LlmCallGuard(new AiConfig(), registry);
+
+        for (int i = 0; i < 3; i++) {
+            guard.acquire(LlmCallGuard.Task.CHAT_STREAM).failure();
+        }
+
+        assertEquals(10.0, registry.get("ai.llm.limit").gauge().value());
+        assertEquals(3.0, registry.get("ai.llm.failures").counter().count());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static ChatRequest chatRequest() {
+        return new ChatRequest(List.of(new ChatRequest.MessageDto("user", "Привет")), null, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.res.SuggestionResponse;
+import com.oquga.oquga.enums.SuggestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = SuggestionIndex.build(List.of(
+            new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Назарбаев Университет", "ru", 1L),
+            new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Назарбаев Университет", "kk", 1L),
+            new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Nazarbayev University", "en", 1L),
+            new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Университет Сатпаева", "ru", 2L),
+            new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Satbayev University", "en", 2L),
+            new SuggestionIndex.Entry(SuggestionType.CITY, "Астана", "ru", null),
+            new SuggestionIndex.Entry(SuggestionType.CITY, "Астана", "kk", null),
+            new SuggestionIndex.Entry(SuggestionType.PROGRAM, "Информационные технологии", "ru", null),
+            new SuggestionIndex.Entry(SuggestionType.PROGRAM, "Тёплоэнергетика", "ru", null)
+    ));
+
+    @Test
+    void matchesAnyWordPrefixAndRanksLeadingMatchesFirst() {
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Университет Сатпаева", 2L),
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Назарбаев Университет", 1L)
+        ), index.find("униве", null, 10));
+
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.PROGRAM, "Информационные технологии", null)
+        ), index.find("  ТЕХНО", null, 10));
+    }
+
+    @Test
+    void filtersByLanguageAndCollapsesTranslations() {
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Satbayev University", 2L),
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Nazarbayev University", 1L)
+        ), index.find("univ", "en", 10));
+
+        assertEquals(List.of(new SuggestionResponse(SuggestionType.CITY, "Астана", null)), index.find("аст", null, 10));
+        assertEquals(List.of(), index.find("аст", "en", 10));
+    }
+
+    @Test
+    void normalizesQueryAndRespectsLimit() {
+        assertEquals(List.of(new SuggestionResponse(SuggestionType.PROGRAM, "Тёплоэнергетика", null)), index.find("тепло", "ru", 10));
+        assertEquals(1, index.find("университет", null, 1).size());
+        assertEquals(List.of(), index.find("!!", null, 10));
+        assertEquals(List.of(), SuggestionIndex.EMPTY.find("a", null, 10));
+    }
+
+    @Test
+    void commonPrefixInOneLanguageDoesNotHideOtherMatches() {
+        List<SuggestionIndex.Entry> source = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            source.add(new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Университет " + i, "ru", (long) i));
+            source.add(new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Академия университет " + i, "ru", (long) i));
+        }
+        source.add(new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Әл-Фараби атындағы университеті", "kk", 900L));
+        source.add(new SuggestionIndex.Entry(SuggestionType.UNIVERSITY, "Университеті", "kk", 901L));
+        SuggestionIndex crowded = SuggestionIndex.build(source);
+
+        // the ru keys "университет 0" .. "университет 599" sort before every kk "университеті"
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Университеті", 901L),
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Әл-Фараби атындағы университеті", 900L)
+        ), crowded.find("унив", "kk", 10));
+
+        // across languages the shortest leading match wins, however many ru matches come first alphabetically
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Университеті", 901L)
+        ), crowded.find("унив", null, 1));
+        assertEquals(List.of(
+                new SuggestionResponse(SuggestionType.UNIVERSITY, "Университет 0", 0L)
+        ), crowded.find("унив", "ru", 1));
+    }
+}
@@ -0,0 +1,185 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.service.UniversityService;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class UniversityBatchInsertTest {
+
+    private static final int FACULTIES = 30;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void facultyGraphIsInsertedInJdbcBatches() {
+        UniversityResponse university = createUniversity(universityService, "batch-university");
+        entityManager.flush();
+        entityManager.clear();
+        statementRecorder.executions.clear();
+
+        List<UpdateUniversityRequest.FacultyDto> faculties = IntStream.range(0, FACULTIES)
+                .mapToObj(i -> new UpdateUniversityRequest.FacultyDto(null, i, Map.of(
+                        "kk", new UpdateUniversityRequest.FacultyTranslationDto("Факультет " + i, null),
+                        "ru", new UpdateUniversityRequest.FacultyTranslationDto("Факультет " + i, null),
+                        "en", new UpdateUniversityRequest.FacultyTranslationDto("Faculty " + i, null)
+                ), List.of(), List.of()))
+                .toList();
+
+        universityService.updateUniversity(university.id(), new UpdateUniversityRequest(
+                null, null, null, null, null, null, null,
+                null, null, null, faculties, null, null, null, 0L
+        ), adminEmail);
+
+        // 30 faculties fit one batch of 50, their 90 translations need two
+        assertEquals(List.of(FACULTIES), statementRecorder.batchSizes("insert into faculties "));
+        assertEquals(List.of(50, 40), statementRecorder.batchSizes("insert into faculty_translations "));
+    }
+
+    @Test
+    void largeUpdateLooksUpNoReferenceData() {
+        UniversityResponse university = createUniversity(universityService, "reference-data-university");
+        entityManager.flush();
+        entityManager.clear();
+        statementRecorder.executions.clear();
+
+        List<UpdateUniversityRequest.FacultyDto> faculties = IntStream.range(0, 10)
+                .mapToObj(i -> new UpdateUniversityRequest.FacultyDto(null, i,
+                        translations(lang -> new UpdateUniversityRequest.FacultyTranslationDto("Faculty " + i + lang, null)),
+                        IntStream.range(0, 2)
+                                .mapToObj(d -> new UpdateUniversityRequest.DepartmentDto(null, d,
+                                        translations(lang -> new UpdateUniversityRequest.DepartmentTranslationDto("Department " + d + lang, null, null, null))))
+                                .toList(),
+                        IntStream.range(0, 2)
+                                .mapToObj(g -> new UpdateUniversityRequest.EducationalProgramGroupDto(null, null, "BACHELOR", "B" + i + g, g,
+                                        translations(lang -> new UpdateUniversityRequest.ProgramGroupTranslationDto("Group " + g + lang, null)),
+                                        IntStream.range(0, 2)
+                                                .mapToObj(p -> new UpdateUniversityRequest.EducationalProgramDto(null, "6B" + i + g + p, p,
+                                                        translations(lang -> new UpdateUniversityRequest.ProgramTranslationDto("Program " + p + lang, null))))
+                                                .toList(),
+                                        null))
+                                .toList()))
+                .toList();
+        List<UpdateUniversityRequest.InternationalSectionDto> sections = IntStream.range(0, 2)
+                .mapToObj(i -> new UpdateUniversityRequest.InternationalSectionDto(null, null, i, true,
+                        translations(lang -> new UpdateUniversityRequest.InternationalSectionTranslationDto("Section " + i + lang, null)),
+                        IntStream.range(0, 3)
+                                .mapToObj(item -> new UpdateUniversityRequest.InternationalItemDto(null, null, item, true,
+                                        translations(lang -> new UpdateUniversityRequest.InternationalItemTranslationDto("Item " + item + lang, null))))
+                                .toList()))
+                .toList();
+
+        universityService.updateUniversity(university.id(), new UpdateUniversityRequest(
+                null, null, null, null, null, null,
+                translations(lang -> new UpdateUniversityRequest.TranslationDto("University " + lang, "Almaty", null, null, null, null, null)),
+                null, null, null, faculties, null, null, sections, 0L
+        ), adminEmail);
+
+        // 294 new translation rows reference languages through registry proxies, the response reads them from the second-level cache
+        assertEquals(List.of(), statementRecorder.statementsContaining(" from languages "));
+        assertEquals(List.of(), statementRecorder.statementsContaining(" from roles "));
+        // graph loads, sequence blocks, batched inserts, the root update and the progress refresh: 49 statements, ~340 with a lookup per row
+        int statements = statementRecorder.executions.size();
+        assertTrue(statements < 60, statements + " statements");
+    }
+
+    private static <T> Map<String, T> translations(Function<String, T> translation) {
+        return Map.of("kk", translation.apply("kk"), "ru", translation.apply("ru"), "en", translation.apply("en"));
+    }
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor dataSourceProxyPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .listener(StatementRecorder.LISTENER)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class StatementRecorder {
+
+        private static final List<Execution> RECORDED = new CopyOnWriteArrayList<>();
+
+        static final QueryExecutionListener LISTENER = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                for (QueryInfo query : queryInfoList) {
+                    RECORDED.add(new Execution(query.getQuery(), execInfo.isBatch() ? execInfo.getBatchSize() : 1));
+                }
+            }
+        };
+
+        final List<Execution> executions = RECORDED;
+
+        List<String> statementsContaining(String fragment) {
+            return executions.stream()
+                    .map(Execution::sql)
+                    .filter(sql -> sql.toLowerCase().contains(fragment))
+                    .toList();
+        }
+
+        List<Integer> batchSizes(String statementPrefix) {
+            return executions.stream()
+                    .filter(execution -> execution.sql().toLowerCase().startsWith(statementPrefix))
+                    .map(Execution::size)
+                    .toList();
+        }
+    }
+
+    record Execution(String sql, int size) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.PhotoUploadUrlRequest;
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
+import com.oquga.oquga.entity.University;
+import com.oquga.oquga.exception.UniversityConflictException;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.ViewCountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not @Transactional: every editor has to commit on its own connection
+@SpringBootTest
+class UniversityConcurrentEditTest {
+
+    private static final int EDITORS = 6;
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d};
+
+    @TestConfiguration
+    static class StorageConfiguration {
+
+        @Bean
+        @Primary
+        InMemoryStorageService inMemoryStorageService() {
+            return new InMemoryStorageService();
+        }
+    }
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InMemoryStorageService storage;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void parallelEditorsNeverLoseWritesNorWaitOnLocks() throws Exception {
+        Long id = createUniversity(universityService, "concurrent-university").id();
+
+        ExecutorService pool = Executors.newFixedThreadPool(EDITORS);
+        AtomicBoolean editing = new AtomicBoolean(true);
+        AtomicInteger lockWaits = new AtomicInteger();
+        try {
+            // a session blocked behind another editor's row lock for longer than a flush would show up here
+            Thread monitor = Thread.ofPlatform().start(() -> {
+                while (editing.get()) {
+                    lockWaits.addAndGet(jdbcTemplate.queryForObject("""
+                            SELECT count(*) FROM pg_stat_activity
+                            WHERE datname = current_database() AND wait_event_type = 'Lock'
+                                AND now() - query_start > interval '500 milliseconds'
+                            """, Integer.class));
+                    Thread.onSpinWait();
+                }
+            });
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger conflicts = new AtomicInteger();
+            List<Future<Object>> editors = IntStream.range(0, EDITORS)
+                    .mapToObj(i -> pool.submit(() -> {
+                        start.await();
+                        while (true) {
+                            UniversityDetailResponse current = universityService.getUniversityDetail(id, List.of());
+                            List<UpdateUniversityRequest.LeadershipDto> leadership = new ArrayList<>(current.leadership().stream()
+                                    .map(l -> new UpdateUniversityRequest.LeadershipDto(
+                                            l.id(), l.fullName(), l.position(), l.bioSummary(), l.sortOrder()))
+                                    .toList());
+                            leadership.add(new UpdateUniversityRequest.LeadershipDto(null, "Editor " + i, "Vice-rector", null, i));
+                            try {
+                                universityService.patchLeadership(id, current.version(), leadership, adminEmail);
+                                return null;
+                            } catch (UniversityConflictException | OptimisticLockingFailureException e) {
+                                conflicts.incrementAndGet();
+                            }
+                        }
+                    }))
+                    .toList();
+            start.countDown();
+            for (Future<Object> editor : editors) {
+                editor.get(60, TimeUnit.SECONDS);
+            }
+            editing.set(false);
+            monitor.join();
+
+            UniversityDetailResponse result = universityService.getUniversityDetail(id, List.of());
+            assertEquals(EDITORS, result.leadership().size(), "every editor's entry survives, " + conflicts + " conflicts retried");
+            assertEquals(EDITORS, result.version());
+            assertEquals(0, lockWaits.get());
+        } finally {
+            editing.set(false);
+            pool.shutdownNow();
+            universityRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    void sectionSaveKeepsViewsFlushedAfterTheUniversityWasLoaded() {
+        Long id = createUniversity(universityService, "concurrent-views-university").id();
+        try {
+            saveSectionAround(id, () -> {
+                for (int i = 0; i < 5; i++) {
+                    viewCountService.recordView(id);
+                }
+                viewCountService.flush();
+            });
+
+            assertEquals(5L, jdbcTemplate.queryForObject("SELECT view_count FROM universities WHERE id = ?", Long.class, id));
+        } finally {
+            universityRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    void sectionSaveKeepsAPhotoConfirmedAfterTheUniversityWasLoaded() {
+        Long id = createUniversity(universityService, "concurrent-photo-university").id();
+        try {
+            String first = uploadedPhotoKey(id);
+            universityService.confirmPhotoUpload(id, first, adminEmail);
+            String second = uploadedPhotoKey(id);
+
+            saveSectionAround(id, () -> universityService.confirmPhotoUpload(id, second, adminEmail));
+
+            // the confirmation deleted the first photo, the edit must not point the university back at it
+            University saved = universityRepository.findById(id).orElseThrow();
+            assertEquals(second, saved.getPhotoUrl());
+            assertTrue(storage.objects.containsKey(second));
+
+            saveSectionAround(id, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    universityRepository.updatePhotoVariants(id, second, new Integer[]{320}, LocalDateTime.now())));
+
+            assertArrayEquals(new Integer[]{320}, universityRepository.findById(id).orElseThrow().getPhotoVariantWidths());
+        } finally {
+            universityRepository.deleteById(id);
+        }
+    }
+
+    private String uploadedPhotoKey(Long id) {
+        String key = universityService.createPhotoUploadUrl(
+                id, new PhotoUploadUrlRequest("image/png", (long) PNG.length), adminEmail).objectKey();
+        storage.put(key, PNG);
+        return key;
+    }
+
+    // loads the university like a section edit, lets another request commit, then saves the loaded entity
+    private void saveSectionAround(Long id, Runnable concurrentChange) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            University university = universityRepository.findById(id).orElseThrow();
+            CompletableFuture.runAsync(concurrentChange).join();
+            university.setContactPhone("+7 727 000 00 00");
+            universityRepository.saveAndFlush(university);
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.event.UniversityChangedEvent;
+import com.oquga.oquga.event.UniversityViewsFlushedEvent;
+import com.oquga.oquga.service.CatalogCacheService;
+import com.oquga.oquga.service.UniversityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UniversityDetailCacheServiceImplTest {
+
+    private static final byte[] JSON = "{\"id\":1}".getBytes();
+
+    private final UniversityService universityService = mock(UniversityService.class);
+    private final JsonMapper jsonMapper = mock(JsonMapper.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CatalogCacheService passThrough = new CatalogCacheService() {
+        @Override
+        public <T> T getCatalogEntry(long catalogVersion, String key, Class<T> type, Supplier<T> loader) {
+            return loader.get();
+        }
+
+        @Override
+        public <T> T getUniversityEntry(Long universityId, String version, String key, Class<T> type,
+                                        Supplier<T> loader) {
+            return loader.get();
+        }
+    };
+    private final UniversityDetailCacheServiceImpl cacheService = new UniversityDetailCacheServiceImpl(
+            universityService, passThrough, jsonMapper, meterRegistry, DataSize.ofMegabytes(1));
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(universityService.getUniversityDetail(anyLong(), any())).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        when(jsonMapper.writeValueAsBytes(any())).thenReturn(JSON);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cacheService.getDetailJson(1L, "1-1", List.of("ru"))));
+            }
+            Thread.sleep(100);
+            loading.countDown();
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(JSON, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(universityService, times(1)).getUniversityDetail(1L, List.of("ru"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(7.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void changesAndViewFlushesEvictEveryLanguageOfTheUniversity() {
+        when(jsonMapper.writeValueAsBytes(any())).thenReturn(JSON);
+
+        cacheService.getDetailJson(1L, "1-1", List.of());
+        cacheService.getDetailJson(1L, "1-1", List.of("kk", "ru"));
+        cacheService.getDetailJson(2L, "2-1", List.of());
+
+        cacheService.onUniversityChanged(new UniversityChangedEvent(1L));
+        cacheService.getDetailJson(1L, "1-1", List.of());
+        cacheService.getDetailJson(1L, "1-1", List.of("kk", "ru"));
+        cacheService.getDetailJson(2L, "2-1", List.of());
+
+        verify(universityService, times(2)).getUniversityDetail(1L, List.of());
+        verify(universityService, times(2)).getUniversityDetail(1L, List.of("kk", "ru"));
+        verify(universityService, times(1)).getUniversityDetail(eq(2L), any());
+
+        cacheService.onViewsFlushed(new UniversityViewsFlushedEvent(List.of(2L)));
+        cacheService.getDetailJson(2L, "2-1", List.of());
+
+        verify(universityService, times(2)).getUniversityDetail(eq(2L), any());
+    }
+
+    @Test
+    void newVersionIsNotServedTheBytesOfTheOldOne() {
+        byte[] stale = "{\"id\":1,\"name\":\"old\"}".getBytes();
+        byte[] fresh = "{\"id\":1,\"name\":\"new\"}".getBytes();
+        when(jsonMapper.writeValueAsBytes(any())).thenReturn(stale, fresh);
+
+        assertArrayEquals(stale, cacheService.getDetailJson(1L, "1-1", List.of("ru")));
+        // the edit committed, its eviction has not run yet
+        assertArrayEquals(fresh, cacheService.getDetailJson(1L, "1-2", List.of("ru")));
+
+        verify(universityService, times(2)).getUniversityDetail(1L, List.of("ru"));
+    }
+
+    @Test
+    void loadThatRacesAnEvictionIsNotServedAfterIt() throws Exception {
+        byte[] stale = "{\"id\":1,\"name\":\"old\"}".getBytes();
+        byte[] fresh = "{\"id\":1,\"name\":\"new\"}".getBytes();
+        CountDownLatch readDatabase = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(universityService.getUniversityDetail(anyLong(), any())).thenAnswer(invocation -> {
+            readDatabase.countDown();
+            committed.await(5, TimeUnit.SECONDS);
+            return null;
+        }).thenReturn(null);
+        when(jsonMapper.writeValueAsBytes(any())).thenReturn(stale, fresh);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the first load reads the old row, then the edit commits and evicts before the load is stored
+            Future<byte[]> racing = executor.submit(() -> cacheService.getDetailJson(1L, "1-1", List.of("ru")));
+            readDatabase.await(5, TimeUnit.SECONDS);
+            cacheService.onUniversityChanged(new UniversityChangedEvent(1L));
+            committed.countDown();
+            assertArrayEquals(stale, racing.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertArrayEquals(fresh, cacheService.getDetailJson(1L, "1-1", List.of("ru")));
+        assertArrayEquals(fresh, cacheService.getDetailJson(1L, "1-1", List.of("ru")));
+        verify(universityService, times(2)).getUniversityDetail(1L, List.of("ru"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.translations;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The admin detail endpoint is served by a single jsonb query, while the update
+ * endpoint maps the entity graph it has just written. Both must produce the same response.
+ */
+@SpringBootTest
+@Transactional
+class UniversityDetailJsonTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void emptyUniversityMatchesEntityMapping() {
+        Long id = createUniversity("detail-json-empty");
+
+        UniversityDetailResponse fromEntities = universityService.updateUniversity(id, emptyUpdate(), adminEmail);
+        UniversityDetailResponse fromJson = universityService.getUniversityDetail(id, List.of());
+
+        assertEquivalent(fromEntities, fromJson);
+        assertEquals(List.of(), fromJson.faculties());
+        assertNull(fromJson.admissionRule());
+    }
+
+    @Test
+    void fullGraphMatchesEntityMapping() {
+        Long id = createUniversity("detail-json-full");
+
+        UniversityDetailResponse fromEntities = universityService.updateUniversity(id, fullUpdate(), adminEmail);
+        UniversityDetailResponse fromJson = universityService.getUniversityDetail(id, List.of());
+
+        assertEquivalent(fromEntities, fromJson);
+        assertEquals(List.of("Second", "First"),
+                fromJson.leadership().stream().map(UniversityDetailResponse.LeadershipDto::fullName).toList());
+        assertEquals(List.of("6B01101", "6B01102"), fromJson.faculties().get(1).programGroups().getFirst()
+                .programs().stream().map(UniversityDetailResponse.EducationalProgramDto::code).toList());
+    }
+
+    @Test
+    void languageScopedDetailKeepsOnePreferredTranslationPerEntity() {
+        Long id = createUniversity("detail-json-lang");
+        universityService.updateUniversity(id, fullUpdate(), adminEmail);
+
+        UniversityDetailResponse ru = universityService.getUniversityDetail(id, List.of("ru"));
+        assertEquals(Set.of("ru"), ru.translations().keySet());
+        assertEquals(Set.of(), ru.faculties().getFirst().translations().keySet());
+        assertNull(ru.progress());
+
+        UniversityDetailResponse kkWithFallback = universityService.getUniversityDetail(id, List.of("kk", "en"));
+        assertEquals(Set.of("kk"), kkWithFallback.translations().keySet());
+        assertEquals(Set.of("en"), kkWithFallback.faculties().getFirst().translations().keySet());
+        assertEquals(Set.of("en"), kkWithFallback.faculties().get(1).programGroups().getFirst()
+                .programs().getFirst().translations().keySet());
+
+        UniversityResponse listed = universityService.getUniversityById(id, List.of("kk", "en"));
+        assertEquals(Set.of("kk"), listed.translations().keySet());
+    }
+
+    private Long createUniversity(String slug) {
+        return universityService.createUniversity(new CreateUniversityRequest(
+                slug, "https://example.com", null, 1990, "+7 700 000 00 00", "info@example.com", translations()
+        )).id();
+    }
+
+    private UpdateUniversityRequest emptyUpdate() {
+        return new UpdateUniversityRequest(
+                null, null, null, null, null, null,
+                Map.of("en", new UpdateUniversityRequest.TranslationDto(
+                        "University", "Almaty", null, null, null, null, null)),
+                List.of(), List.of(), List.of(), List.of(), null, List.of(), List.of(), 0L
+        );
+    }
+
+    private UpdateUniversityRequest fullUpdate() {
+        Map<String, UpdateUniversityRequest.TranslationDto> translations = Map.of(
+                "kk", new UpdateUniversityRequest.TranslationDto("Университет", "Алматы", "Қысқа", "Сипаттама", "Мақсат", "Мекенжай", "Тарих"),
+                "ru", new UpdateUniversityRequest.TranslationDto("Университет", "Алматы", "Кратко", "Описание", "Цель", "Адрес", null),
+                "en", new UpdateUniversityRequest.TranslationDto("University", "Almaty", null, "Description", null, "Address", "History")
+        );
+
+        var programs = List.of(
+                new UpdateUniversityRequest.EducationalProgramDto(null, "6B01102", 2,
+                        Map.of("en", new UpdateUniversityRequest.ProgramTranslationDto("Physics", null))),
+                new UpdateUniversityRequest.EducationalProgramDto(null, "6B01101", 1,
+                        Map.of("en", new UpdateUniversityRequest.ProgramTranslationDto("Mathematics", "Pure"),
+                                "ru", new UpdateUniversityRequest.ProgramTranslationDto("Математика", null)))
+        );
+        var groups = List.of(new UpdateUniversityRequest.EducationalProgramGroupDto(
+                null, null, "BACHELOR", "B001", 0,
+                Map.of("en", new UpdateUniversityRequest.ProgramGroupTranslationDto("Pedagogy", null)),
+                programs,
+                new UpdateUniversityRequest.PassingScoreDto(70, 50, "Math, Physics", false)
+        ));
+        var faculties = List.of(
+                new UpdateUniversityRequest.FacultyDto(null, 2,
+                        Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Science", null)),
+                        List.of(), groups),
+                new UpdateUniversityRequest.FacultyDto(null, 1,
+                        Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Arts", "Fine arts")),
+                        List.of(
+                                new UpdateUniversityRequest.DepartmentDto(null, 3,
+                                        Map.of("en", new UpdateUniversityRequest.DepartmentTranslationDto("Music", null, null, null))),
+                                new UpdateUniversityRequest.DepartmentDto(null, 1,
+                                        Map.of("en", new UpdateUniversityRequest.DepartmentTranslationDto("Design", "Goal", "Mission", "Tasks")))
+                        ),
+                        List.of())
+        );
+
+        return new UpdateUniversityRequest(
+                null, "https://example.com", "https://tour.example.com", 1991, "+7 700 000 00 01", "office@example.com",
+                translations,
+                List.of(
+                        new UpdateUniversityRequest.LeadershipDto(null, "First", "Rector", null, 2),
+                        new UpdateUniversityRequest.LeadershipDto(null, "Second", "Vice-rector", "Bio", 1)
+                ),
+                List.of(new UpdateUniversityRequest.AchievementDto(null, "QS", 2024, "#1", null, 0)),
+                List.of(
+                        new UpdateUniversityRequest.HistoryEventDto(null, 1995, "Renamed", 1),
+                        new UpdateUniversityRequest.HistoryEventDto(null, 1990, "Founded", 0)
+                ),
+                faculties,
+                new UpdateUniversityRequest.AdmissionRuleDto(
+                        LocalDate.of(2026, 6, 20), LocalDate.of(2026, 8, 25), "Documents", null, null, "Dormitory"),
+                List.of(new UpdateUniversityRequest.TuitionDiscountDto(null, "Orphans", 1_500_000, "100%", 0)),
+                List.of(new UpdateUniversityRequest.InternationalSectionDto(
+                        null, "https://intl.example.com", 0, true,
+                        Map.of("en", new UpdateUniversityRequest.InternationalSectionTranslationDto("Exchange", null)),
+                        List.of(
+                                new UpdateUniversityRequest.InternationalItemDto(null, null, 1, false,
+                                        Map.of("en", new UpdateUniversityRequest.InternationalItemTranslationDto("Erasmus", "EU"))),
+                                new UpdateUniversityRequest.InternationalItemDto(null, "https://dd.example.com", 0, true,
+                                        Map.of("en", new UpdateUniversityRequest.InternationalItemTranslationDto("Double degree", null)))
+                        ))),
+                0L
+        );
+    }
+
+    private void assertEquivalent(UniversityDetailResponse expected, UniversityDetailResponse actual) {
+        // timestamps lose sub-microsecond precision on the way through Postgres
+        assertEquals(withoutTimestamps(expected), withoutTimestamps(actual));
+    }
+
+    private UniversityDetailResponse withoutTimestamps(UniversityDetailResponse r) {
+        return new UniversityDetailResponse(
+                r.id(), r.slug(), r.photoUrl(), r.websiteUrl(), r.virtualTourUrl(), r.foundedYear(),
+                r.contactPhone(), r.contactEmail(), r.viewCount(), r.translations(), r.leadership(),
+                r.achievements(), r.historyEvents(), r.faculties(), r.admissionRule(), r.tuitionDiscounts(),
+                r.internationalSections(), r.progress(), null, null, r.version()
+        );
+    }
+}
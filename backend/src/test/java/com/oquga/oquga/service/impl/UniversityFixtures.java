@@ -0,0 +1,43 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.service.UniversityService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Universities and faculties that tests build on when the names themselves do not matter.
+ */
+public final class UniversityFixtures {
+
+    private UniversityFixtures() {
+    }
+
+    public static Map<String, CreateUniversityRequest.TranslationDto> translations() {
+        return Map.of(
+                "kk", new CreateUniversityRequest.TranslationDto("Университеті", "Алматы", null, null),
+                "ru", new CreateUniversityRequest.TranslationDto("Университет", "Алматы", null, null),
+                "en", new CreateUniversityRequest.TranslationDto("University", "Almaty", null, null)
+        );
+    }
+
+    public static UniversityResponse createUniversity(UniversityService universityService, String slug) {
+        return universityService.createUniversity(new CreateUniversityRequest(
+                slug, null, null, null, null, null, translations()));
+    }
+
+    /**
+     * Adds a single faculty to a university that has not been edited yet and returns its id.
+     */
+    public static Long addFaculty(UniversityService universityService, Long universityId, String userEmail) {
+        return universityService.updateUniversity(universityId, new UpdateUniversityRequest(
+                null, null, null, null, null, null, null, null, null, null,
+                List.of(new UpdateUniversityRequest.FacultyDto(null, 0,
+                        Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Mathematics", null)), null, null)),
+                null, null, null, 0L
+        ), userEmail).faculties().getFirst().id();
+    }
+}
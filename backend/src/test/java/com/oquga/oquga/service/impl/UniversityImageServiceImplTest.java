@@ -0,0 +1,202 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@Transactional
+class UniversityImageServiceImplTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private final InMemoryStorageService storage = new InMemoryStorageService();
+
+    @Test
+    void variantsAreStoredNextToTheOriginalAndRecorded() throws IOException {
+        Long id = createUniversity(universityService, "image-university").id();
+        String photoKey = "universities/image-university/photo.png";
+        storage.put(photoKey, png(1600, 900));
+        universityRepository.updatePhoto(id, photoKey, LocalDateTime.now());
+
+        imageService().generateVariants(id, photoKey);
+
+        assertEquals("320,640,1280", variantWidths(id));
+        for (int width : List.of(320, 640, 1280)) {
+            String key = "universities/image-university/photo_w" + width + ".jpg";
+            assertEquals("image/jpeg", storage.contentTypes.get(key));
+            BufferedImage variant = ImageIO.read(new ByteArrayInputStream(storage.objects.get(key)));
+            assertEquals(width, variant.getWidth());
+            assertEquals(Math.round(width * 900f / 1600), variant.getHeight());
+        }
+    }
+
+    @Test
+    void smallPhotoIsMarkedProcessedWithoutVariants() throws IOException {
+        Long id = createUniversity(universityService, "small-image-university").id();
+        String photoKey = "universities/small-image-university/photo.png";
+        storage.put(photoKey, png(200, 200));
+        universityRepository.updatePhoto(id, photoKey, LocalDateTime.now());
+
+        imageService().generateVariants(id, photoKey);
+
+        assertEquals("", variantWidths(id));
+        assertEquals(1, storage.objects.size());
+    }
+
+    @Test
+    void largePhotoIsSubsampledWhileDecoding() throws IOException {
+        Long id = createUniversity(universityService, "wide-image-university").id();
+        String photoKey = "universities/wide-image-university/photo.png";
+        storage.put(photoKey, png(5200, 260));
+        universityRepository.updatePhoto(id, photoKey, LocalDateTime.now());
+
+        imageService().generateVariants(id, photoKey);
+
+        assertEquals("320,640,1280", variantWidths(id));
+        BufferedImage variant = ImageIO.read(new ByteArrayInputStream(
+                storage.objects.get("universities/wide-image-university/photo_w1280.jpg")));
+        assertEquals(1280, variant.getWidth());
+        assertEquals(64, variant.getHeight());
+    }
+
+    @Test
+    void oversizedPhotoIsMarkedProcessedWithoutDecoding() throws IOException {
+        Long id = createUniversity(universityService, "oversized-image-university").id();
+        String photoKey = "universities/oversized-image-university/photo.png";
+        storage.put(photoKey, png(1600, 900));
+        universityRepository.updatePhoto(id, photoKey, LocalDateTime.now());
+
+        imageService(1_000_000).generateVariants(id, photoKey);
+
+        // recorded as processed, so the backfill does not pick it up again
+        assertEquals("", variantWidths(id));
+        assertEquals(1, storage.objects.size());
+    }
+
+    @Test
+    void variantsOfAReplacedPhotoAreDiscarded() throws IOException {
+        Long id = createUniversity(universityService, "replaced-image-university").id();
+        String staleKey = "universities/replaced-image-university/old.png";
+        storage.put(staleKey, png(800, 600));
+        universityRepository.updatePhoto(id, "universities/replaced-image-university/new.png", LocalDateTime.now());
+
+        imageService().generateVariants(id, staleKey);
+
+        assertNull(variantWidths(id));
+        assertFalse(storage.objects.keySet().stream().anyMatch(key -> key.contains("_w")));
+    }
+
+    @Test
+    void replacingThePhotoClearsItsVariantsUntilTheyAreRegenerated() throws IOException {
+        Long id = createUniversity(universityService, "rephotographed-university").id();
+        String oldKey = "universities/rephotographed-university/old.png";
+        String newKey = "universities/rephotographed-university/new.png";
+        storage.put(oldKey, png(1600, 900));
+        storage.put(newKey, png(700, 400));
+        universityRepository.updatePhoto(id, oldKey, LocalDateTime.now());
+        imageService().generateVariants(id, oldKey);
+        assertEquals("320,640,1280", variantWidths(id));
+
+        universityRepository.updatePhoto(id, newKey, LocalDateTime.now());
+
+        // the old widths must not be advertised for the new photo, and the backfill must see the row again
+        assertNull(variantWidths(id));
+        assertTrue(universityRepository.findPhotosWithoutVariants().stream()
+                .anyMatch(source -> source.getUniversityId().equals(id) && source.getPhotoKey().equals(newKey)));
+
+        imageService().generateVariants(id, newKey);
+
+        assertEquals("320,640", variantWidths(id));
+        assertTrue(storage.objects.containsKey("universities/rephotographed-university/new_w640.jpg"));
+    }
+
+    @Test
+    void recordedVariantsInvalidateTheUniversityEtag() throws Exception {
+        Long id = createUniversity(universityService, "etag-image-university").id();
+        String photoKey = "universities/etag-image-university/photo.png";
+        storage.put(photoKey, png(1600, 900));
+        universityRepository.updatePhoto(id, photoKey, LocalDateTime.now().minusMinutes(1));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String path = "/api/v1/universities/" + id;
+        String etag = mockMvc.perform(get(path)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        imageService().generateVariants(id, photoKey);
+
+        // a client holding the response from before the variants existed must not be told it is current
+        MockHttpServletResponse revalidated = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+        assertEquals(200, revalidated.getStatus());
+        assertNotEquals(etag, revalidated.getHeader(HttpHeaders.ETAG));
+    }
+
+    private UniversityImageServiceImpl imageService() {
+        return imageService(50_000_000);
+    }
+
+    private UniversityImageServiceImpl imageService(long maxPixels) {
+        return new UniversityImageServiceImpl(universityRepository, storage, eventPublisher, transactionManager,
+                List.of(1280, 320, 640), 1, 1, maxPixels);
+    }
+
+    private String variantWidths(Long universityId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT array_to_string(photo_variant_widths, ',') FROM universities WHERE id = ?", String.class, universityId);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
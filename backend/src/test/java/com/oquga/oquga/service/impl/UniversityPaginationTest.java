@@ -0,0 +1,63 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.res.UniversityListResponse;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.enums.UniversitySort;
+import com.oquga.oquga.service.UniversityService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class UniversityPaginationTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void cursorPagesFollowOffsetOrder() {
+        for (int i = 0; i < 5; i++) {
+            createUniversity(universityService, "cursor-" + i);
+        }
+        // timestamps are read back from Postgres with microsecond precision, as in a fresh request
+        entityManager.clear();
+
+        List<Long> expected = universityService.getUniversities("", 1, 100, UniversitySort.NEWEST, false, List.of()).data().stream()
+                .map(UniversityResponse::id)
+                .toList();
+
+        List<Long> actual = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            UniversityListResponse page = universityService.getUniversitiesAfter(cursor, 2, false, List.of());
+            page.data().forEach(u -> actual.add(u.id()));
+            assertNull(page.meta().total());
+            cursor = page.meta().nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+        assertEquals((expected.size() + 1) / 2, pages);
+        assertEquals(expected.size(), universityService.getUniversitiesAfter("", 2, true, List.of()).meta().total());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> universityService.getUniversitiesAfter("not-a-cursor", 10, false, List.of()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.PhotoUploadUrlRequest;
+import com.oquga.oquga.dto.university.res.PhotoUploadUrlResponse;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.UniversitySnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// not @Transactional: storage calls of the confirmation must run outside any transaction
+@SpringBootTest
+class UniversityPhotoUploadTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d};
+
+    @TestConfiguration
+    static class StorageConfiguration {
+
+        @Bean
+        @Primary
+        TransactionCheckingStorage transactionCheckingStorage() {
+            return new TransactionCheckingStorage();
+        }
+    }
+
+    static class TransactionCheckingStorage extends InMemoryStorageService {
+
+        final AtomicInteger callsInTransaction = new AtomicInteger();
+
+        @Override
+        public long getSize(String objectName) {
+            check();
+            return super.getSize(objectName);
+        }
+
+        @Override
+        public byte[] readHead(String objectName, int length) {
+            check();
+            return super.readHead(objectName, length);
+        }
+
+        @Override
+        public void delete(String objectName) {
+            check();
+            super.delete(objectName);
+        }
+
+        private void check() {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                callsInTransaction.incrementAndGet();
+            }
+        }
+    }
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private UniversitySnapshotService universitySnapshotService;
+
+    @Autowired
+    private TransactionCheckingStorage storage;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    private Long universityId;
+
+    @BeforeEach
+    void createUniversity() {
+        universityId = UniversityFixtures.createUniversity(universityService, "photo-upload-university").id();
+    }
+
+    @AfterEach
+    void deleteUniversity() {
+        universityRepository.deleteById(universityId);
+    }
+
+    @Test
+    void uploadUrlIsSignedForTheUniversityFolderOnly() {
+        PhotoUploadUrlResponse upload = universityService.createPhotoUploadUrl(
+                universityId, new PhotoUploadUrlRequest("image/png", 1024L), adminEmail);
+
+        assertTrue(upload.objectKey().startsWith("universities/photo-upload-university/"));
+        assertTrue(upload.objectKey().endsWith(".png"));
+        assertEquals(upload.objectKey(), upload.fields().get("key"));
+        assertEquals("image/png", upload.fields().get("Content-Type"));
+
+        assertThrows(IllegalArgumentException.class, () -> universityService.createPhotoUploadUrl(
+                universityId, new PhotoUploadUrlRequest("image/gif", 1024L), adminEmail));
+        assertThrows(IllegalArgumentException.class, () -> universityService.createPhotoUploadUrl(
+                universityId, new PhotoUploadUrlRequest("image/png", 100L * 1024 * 1024), adminEmail));
+    }
+
+    @Test
+    void confirmationReplacesThePhotoWithoutHoldingATransactionDuringStorageCalls() {
+        String first = uploadedKey(PNG);
+        universityService.confirmPhotoUpload(universityId, first, adminEmail);
+        assertEquals(first, universityRepository.findById(universityId).orElseThrow().getPhotoUrl());
+
+        String second = uploadedKey(PNG);
+        universityService.confirmPhotoUpload(universityId, second, adminEmail);
+
+        assertEquals(second, universityRepository.findById(universityId).orElseThrow().getPhotoUrl());
+        assertFalse(storage.objects.containsKey(first));
+        assertEquals(0, storage.callsInTransaction.get());
+    }
+
+    @Test
+    void publishedPhotoIsKeptUntilTheProfileIsRepublished() {
+        String published = uploadedKey(PNG);
+        universityService.confirmPhotoUpload(universityId, published, adminEmail);
+        universitySnapshotService.publish(universityId, adminEmail);
+
+        String replacement = uploadedKey(PNG);
+        universityService.confirmPhotoUpload(universityId, replacement, adminEmail);
+        assertTrue(storage.objects.containsKey(published));
+        // signed when served; the in-memory storage signs a key as the key itself
+        assertEquals(published, publishedPhotoUrl());
+
+        universitySnapshotService.publish(universityId, adminEmail);
+        assertFalse(storage.objects.containsKey(published));
+        assertEquals(replacement, publishedPhotoUrl());
+        assertEquals(0, storage.callsInTransaction.get());
+    }
+
+    @Test
+    void confirmationRejectsForeignKeysAndNonImages() {
+        storage.put("universities/other-university/photo.png", PNG);
+        assertThrows(IllegalArgumentException.class, () -> universityService.confirmPhotoUpload(
+                universityId, "universities/other-university/photo.png", adminEmail));
+
+        String script = uploadedKey("<script>alert(1)</script>".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> universityService.confirmPhotoUpload(
+                universityId, script, adminEmail));
+        assertFalse(storage.objects.containsKey(script));
+    }
+
+    private String publishedPhotoUrl() {
+        return jsonMapper.readTree(universitySnapshotService.getPublishedProfile("photo-upload-university", "ru"))
+                .get("photoUrl").asString();
+    }
+
+    private String uploadedKey(byte[] content) {
+        String key = universityService.createPhotoUploadUrl(
+                universityId, new PhotoUploadUrlRequest("image/png", (long) content.length), adminEmail).objectKey();
+        storage.put(key, content);
+        return key;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.enums.UniversitySort;
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.translations;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class UniversityProgressTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void progressIsStoredOnWriteAndUsedForSorting() {
+        UniversityResponse bare = createUniversity("progress-bare", null);
+        UniversityResponse withSite = createUniversity("progress-site", "https://example.com");
+
+        // founded year + phone + email
+        assertEquals(15, bare.progressPercent());
+        assertEquals(20, withSite.progressPercent());
+
+        universityService.updateUniversity(bare.id(), new UpdateUniversityRequest(
+                null, null, null, 1990, "+7 700 000 00 00", "info@example.com",
+                Map.of("en", new UpdateUniversityRequest.TranslationDto(
+                        "University", "Almaty", null, "Description", null, null, null)),
+                List.of(new UpdateUniversityRequest.LeadershipDto(null, "Rector", "Rector", null, 0)),
+                List.of(), List.of(), List.of(), null, List.of(), List.of(), 0L
+        ), adminEmail);
+
+        assertEquals(30, universityService.getUniversityById(bare.id(), List.of()).progressPercent());
+
+        List<Long> ids = universityService.getUniversities("", 1, 100, UniversitySort.PROGRESS_DESC, false, List.of()).data().stream()
+                .map(UniversityResponse::id)
+                .filter(id -> id.equals(bare.id()) || id.equals(withSite.id()))
+                .toList();
+        assertEquals(List.of(bare.id(), withSite.id()), ids);
+    }
+
+    private UniversityResponse createUniversity(String slug, String websiteUrl) {
+        return universityService.createUniversity(new CreateUniversityRequest(
+                slug, websiteUrl, null, 1990, "+7 700 000 00 00", "info@example.com", translations()
+        ));
+    }
+}
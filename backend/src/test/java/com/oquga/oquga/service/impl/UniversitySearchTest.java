@@ -0,0 +1,107 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.CreateUniversityRequest;
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityListResponse;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.enums.UniversitySort;
+import com.oquga.oquga.repository.UniversityRepository;
+import com.oquga.oquga.service.UniversityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class UniversitySearchTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void searchMatchesWordPrefixesInAnyLanguageOrderedByRank() {
+        Long nu = createUniversity("search-nu", "Назарбаев Университет", "Астана", "Nazarbayev University", "Astana");
+        Long kaznu = createUniversity("search-kaznu", "Казахский национальный университет", "Алматы", "Al-Farabi Kazakh National University", "Almaty");
+        Long astanaIt = createUniversity("search-aitu", "Astana IT University", "Astana", "Astana IT University", "Astana");
+
+        assertEquals(List.of(nu), search("Назарба"));
+        assertEquals(List.of(nu), search("nazarbayev univ"));
+        assertEquals(List.of(kaznu), search("университеты алматы"));
+        // a name match (weight A) outranks a city-only match (weight B)
+        assertEquals(List.of(astanaIt, nu), search("astana"));
+        assertEquals(List.of(), search("%_!"));
+    }
+
+    @Test
+    void fuzzySearchToleratesTyposInUniversityAndProgramNames() {
+        Long nu = createUniversity("fuzzy-nu", "Назарбаев Университет", "Астана", "Nazarbayev University", "Astana");
+        Long satbayev = createUniversity("fuzzy-satbayev", "Университет Сатпаева", "Алматы", "Satbayev University", "Almaty");
+        universityService.updateUniversity(satbayev, new UpdateUniversityRequest(
+                null, null, null, null, null, null, Map.of(), List.of(), List.of(), List.of(),
+                List.of(new UpdateUniversityRequest.FacultyDto(null, 0, Map.of(), List.of(), List.of(
+                        new UpdateUniversityRequest.EducationalProgramGroupDto(null, null, "BACHELOR", "B057", 0,
+                                Map.of("ru", new UpdateUniversityRequest.ProgramGroupTranslationDto("Информационные технологии", null)),
+                                List.of(), null)))),
+                null, List.of(), List.of(), 0L
+        ), adminEmail);
+
+        assertEquals(List.of(nu), fuzzySearch("Назарбаеф"));
+        assertEquals(List.of(satbayev), fuzzySearch("Satpaev"));
+        assertEquals(List.of(satbayev), fuzzySearch("информацоные технолгии"));
+        assertEquals(List.of(), search("Назарбаеф"));
+    }
+
+    @Test
+    void searchUsesGinIndex() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT t.university_id FROM university_translations t WHERE "
+                        + UniversityRepository.SEARCH_QUERY_CONDITION.replace(":query", "?"),
+                String.class, "назарбаев:*", "назарбаев:*", "назарбаев:*");
+
+        assertTrue(plan.stream().anyMatch(line -> line.contains("idx_ut_search_vector")), String.join("\n", plan));
+
+        List<String> fuzzyPlan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT t.university_id FROM university_translations t WHERE ? <% t.name",
+                String.class, "Назарбаеф");
+
+        assertTrue(fuzzyPlan.stream().anyMatch(line -> line.contains("idx_ut_name_trgm")), String.join("\n", fuzzyPlan));
+    }
+
+    private List<Long> search(String query) {
+        UniversityListResponse response = universityService.getUniversities(query, 1, 10, UniversitySort.NEWEST, false, List.of());
+        return response.data().stream().map(UniversityResponse::id).toList();
+    }
+
+    private List<Long> fuzzySearch(String query) {
+        UniversityListResponse response = universityService.getUniversities(query, 1, 10, UniversitySort.NEWEST, true, List.of());
+        return response.data().stream().map(UniversityResponse::id).toList();
+    }
+
+    private Long createUniversity(String slug, String ruName, String ruCity, String enName, String enCity) {
+        return universityService.createUniversity(new CreateUniversityRequest(
+                slug, null, null, null, null, null,
+                Map.of(
+                        "kk", new CreateUniversityRequest.TranslationDto(ruName, ruCity, null, null),
+                        "ru", new CreateUniversityRequest.TranslationDto(ruName, ruCity, null, null),
+                        "en", new CreateUniversityRequest.TranslationDto(enName, enCity, null, null)
+                )
+        )).id();
+    }
+}
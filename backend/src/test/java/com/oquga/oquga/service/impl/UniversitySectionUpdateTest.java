@@ -0,0 +1,132 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.UniversityDetailResponse;
+import com.oquga.oquga.dto.university.res.UniversitySectionResponse;
+import com.oquga.oquga.exception.UniversityConflictException;
+import com.oquga.oquga.service.UniversityService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.addFaculty;
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class UniversitySectionUpdateTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void sectionPatchLeavesOtherSectionsAlone() {
+        Long id = createUniversity(universityService, "section-university").id();
+        Long facultyId = addFaculty(universityService, id, adminEmail);
+        entityManager.clear();
+        LocalDateTime before = updatedAt(id);
+
+        UniversitySectionResponse<List<UniversityDetailResponse.LeadershipDto>> leadership = universityService.patchLeadership(id, 1, List.of(
+                new UpdateUniversityRequest.LeadershipDto(null, "Rector", "Rector", null, 0)
+        ), adminEmail);
+        entityManager.clear();
+
+        assertEquals(1, leadership.data().size());
+        assertEquals("Rector", leadership.data().getFirst().fullName());
+        assertEquals(2, leadership.version());
+        assertTrue(updatedAt(id).isAfter(before));
+
+        UniversityDetailResponse detail = universityService.getUniversityDetail(id, List.of("en"));
+        assertEquals(List.of(facultyId), detail.faculties().stream().map(UniversityDetailResponse.FacultyDto::id).toList());
+        assertEquals(1, detail.leadership().size());
+        assertEquals(2, detail.version());
+    }
+
+    @Test
+    void staleVersionIsRejectedWithTheConflictingSections() {
+        Long id = createUniversity(universityService, "stale-university").id();
+        universityService.patchLeadership(id, 0, List.of(
+                new UpdateUniversityRequest.LeadershipDto(null, "Rector", "Rector", null, 0)
+        ), adminEmail);
+        entityManager.flush();
+        entityManager.clear();
+
+        UniversityConflictException conflict = assertThrows(UniversityConflictException.class, () ->
+                universityService.updateUniversity(id, new UpdateUniversityRequest(
+                        null, null, null, null, null, null, null,
+                        List.of(), List.of(), null, null, null, null, null, 0L
+                ), adminEmail));
+
+        assertEquals(1, conflict.getCurrentVersion());
+        // basic info, achievements and the admission rule still match what the client sent, leadership does not
+        assertEquals(List.of("leadership"), List.copyOf(conflict.getConflicts().keySet()));
+        List<?> currentLeadership = (List<?>) conflict.getConflicts().get("leadership");
+        assertEquals("Rector", ((UniversityDetailResponse.LeadershipDto) currentLeadership.getFirst()).fullName());
+    }
+
+    @Test
+    void staleButIdenticalFacultyEditIsNotAConflict() {
+        Long id = createUniversity(universityService, "stale-faculty-university").id();
+        Long facultyId = addFaculty(universityService, id, adminEmail);
+        entityManager.clear();
+        universityService.patchLeadership(id, 1, List.of(
+                new UpdateUniversityRequest.LeadershipDto(null, "Rector", "Rector", null, 0)
+        ), adminEmail);
+        entityManager.flush();
+        entityManager.clear();
+
+        // the client still holds version 1 and resends the faculty as it was created
+        UniversityConflictException unchanged = assertThrows(UniversityConflictException.class, () ->
+                universityService.patchFaculty(id, facultyId, 1, new UpdateUniversityRequest.FacultyDto(facultyId, 0,
+                        Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Mathematics", null)), null, List.of()),
+                        adminEmail));
+        assertEquals(2, unchanged.getCurrentVersion());
+        assertTrue(unchanged.getConflicts().isEmpty());
+
+        UniversityConflictException renamed = assertThrows(UniversityConflictException.class, () ->
+                universityService.patchFaculty(id, facultyId, 1, new UpdateUniversityRequest.FacultyDto(facultyId, 0,
+                        Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Physics", null)), null, List.of()),
+                        adminEmail));
+        assertEquals(List.of("faculty"), List.copyOf(renamed.getConflicts().keySet()));
+    }
+
+    @Test
+    void facultyIsPatchedOnlyThroughItsOwnUniversity() {
+        Long id = createUniversity(universityService, "faculty-owner").id();
+        Long otherId = createUniversity(universityService, "faculty-stranger").id();
+        Long facultyId = addFaculty(universityService, id, adminEmail);
+        entityManager.clear();
+
+        UpdateUniversityRequest.FacultyDto renamed = new UpdateUniversityRequest.FacultyDto(
+                facultyId, 1, Map.of("en", new UpdateUniversityRequest.FacultyTranslationDto("Physics", null)), null, null);
+
+        assertThrows(RuntimeException.class, () -> universityService.patchFaculty(otherId, facultyId, 0, renamed, adminEmail));
+
+        UniversityDetailResponse.FacultyDto faculty = universityService.patchFaculty(id, facultyId, 1, renamed, adminEmail).data();
+        assertEquals("Physics", faculty.translations().get("en").name());
+        assertEquals(1, faculty.sortOrder());
+    }
+
+    private LocalDateTime updatedAt(Long universityId) {
+        return (LocalDateTime) entityManager
+                .createQuery("SELECT u.updatedAt FROM University u WHERE u.id = :id")
+                .setParameter("id", universityId)
+                .getSingleResult();
+    }
+}
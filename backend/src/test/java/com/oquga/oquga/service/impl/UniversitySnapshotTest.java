@@ -0,0 +1,126 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.dto.university.req.UpdateUniversityRequest;
+import com.oquga.oquga.dto.university.res.PublishResponse;
+import com.oquga.oquga.dto.university.res.UniversityResponse;
+import com.oquga.oquga.service.UniversityService;
+import com.oquga.oquga.service.UniversitySnapshotService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.oquga.oquga.service.impl.UniversityFixtures.createUniversity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class UniversitySnapshotTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversitySnapshotService universitySnapshotService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${application.security.admin.email}")
+    private String adminEmail;
+
+    @Test
+    void draftEditsStayInvisibleUntilRepublished() {
+        UniversityResponse university = createUniversity(universityService, "snapshot-university");
+        entityManager.flush();
+        entityManager.createNativeQuery("""
+                        DELETE FROM university_translations
+                        WHERE university_id = ?1 AND language_id = (SELECT id FROM languages WHERE code = 'kk')
+                        """)
+                .setParameter(1, university.id())
+                .executeUpdate();
+        entityManager.clear();
+
+        PublishResponse published = universitySnapshotService.publish(university.id(), adminEmail);
+        assertTrue(published.languages().containsAll(List.of("kk", "ru", "en")));
+
+        assertEquals("University", name(universitySnapshotService.getPublishedProfile("snapshot-university", "en"), "en"));
+        // the Kazakh translation is missing: the published profile falls back to Russian
+        assertEquals("Университет", name(universitySnapshotService.getPublishedProfile("snapshot-university", "kk"), "ru"));
+
+        entityManager.createNativeQuery("UPDATE university_translations SET name = 'Draft' WHERE university_id = ?1")
+                .setParameter(1, university.id())
+                .executeUpdate();
+        assertEquals("University", name(universitySnapshotService.getPublishedProfile("snapshot-university", "en"), "en"));
+
+        universitySnapshotService.publish(university.id(), adminEmail);
+        assertEquals("Draft", name(universitySnapshotService.getPublishedProfile("snapshot-university", "en"), "en"));
+    }
+
+    @Test
+    void hiddenInternationalContentIsNotPublished() {
+        UniversityResponse university = createUniversity(universityService, "snapshot-hidden-university");
+        universityService.patchInternationalSections(university.id(), 0L, List.of(
+                new UpdateUniversityRequest.InternationalSectionDto(null, null, 0, true,
+                        Map.of("en", new UpdateUniversityRequest.InternationalSectionTranslationDto("Exchange", null)),
+                        List.of(
+                                new UpdateUniversityRequest.InternationalItemDto(null, null, 0, true,
+                                        Map.of("en", new UpdateUniversityRequest.InternationalItemTranslationDto("Erasmus+", null))),
+                                new UpdateUniversityRequest.InternationalItemDto(null, null, 1, false,
+                                        Map.of("en", new UpdateUniversityRequest.InternationalItemTranslationDto("Draft programme", null))))),
+                new UpdateUniversityRequest.InternationalSectionDto(null, null, 1, false,
+                        Map.of("en", new UpdateUniversityRequest.InternationalSectionTranslationDto("Hidden", null)),
+                        List.of())
+        ), adminEmail);
+        entityManager.flush();
+        entityManager.clear();
+
+        universitySnapshotService.publish(university.id(), adminEmail);
+
+        JsonNode sections = jsonMapper.readTree(universitySnapshotService.getPublishedProfile("snapshot-hidden-university", "en"))
+                .get("internationalSections");
+        assertEquals(1, sections.size());
+        assertEquals("Exchange", sections.get(0).get("translations").get("en").get("title").asString());
+        assertEquals(1, sections.get(0).get("items").size());
+        assertEquals("Erasmus+", sections.get(0).get("items").get(0).get("translations").get("en").get("title").asString());
+    }
+
+    @Test
+    void editingMetadataIsNotPublished() {
+        UniversityResponse university = createUniversity(universityService, "snapshot-metadata-university");
+        entityManager.flush();
+        entityManager.clear();
+
+        universitySnapshotService.publish(university.id(), adminEmail);
+
+        JsonNode profile = jsonMapper.readTree(universitySnapshotService.getPublishedProfile("snapshot-metadata-university", "en"));
+        assertEquals(university.id(), profile.get("id").asLong());
+        assertTrue(profile.get("photoUrl").isNull());
+        assertFalse(profile.has("viewCount"));
+        assertFalse(profile.has("progress"));
+        assertFalse(profile.has("version"));
+    }
+
+    @Test
+    void unpublishedUniversityIsNotServed() {
+        assertThrows(RuntimeException.class, () -> universitySnapshotService.getPublishedProfile("never-published", "ru"));
+    }
+
+    private String name(String payload, String lang) {
+        JsonNode translations = jsonMapper.readTree(payload).get("translations");
+        return translations.get(lang).get("name").asString();
+    }
+}
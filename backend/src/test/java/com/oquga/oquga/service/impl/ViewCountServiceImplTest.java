@@ -0,0 +1,102 @@
+package com.oquga.oquga.service.impl;
+
+import com.oquga.oquga.repository.UniversityRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ViewCountServiceImplTest {
+
+    private static final int THREADS = 16;
+    private static final int VIEWS_PER_THREAD = 50_000;
+    private static final long[] UNIVERSITY_IDS = {1L, 2L, 3L, 4L};
+
+    private final Map<Long, Long> database = new ConcurrentHashMap<>();
+    private final UniversityRepository universityRepository = mock(UniversityRepository.class);
+    private final ViewCountServiceImpl viewCountService = new ViewCountServiceImpl(universityRepository, event -> { });
+
+    @Test
+    void noViewsAreLostWhileFlushingConcurrently() throws Exception {
+        when(universityRepository.addViewCounts(any(), any())).thenAnswer(invocation -> {
+            Long[] ids = invocation.getArgument(0);
+            Long[] deltas = invocation.getArgument(1);
+            for (int i = 0; i < ids.length; i++) {
+                database.merge(ids[i], deltas[i], Long::sum);
+            }
+            return Arrays.asList(ids);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        Thread flusher = new Thread(() -> {
+            while (recording.get()) {
+                viewCountService.flush();
+            }
+        });
+        flusher.start();
+
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    viewCountService.recordView(UNIVERSITY_IDS[(i + offset) % UNIVERSITY_IDS.length]);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        recording.set(false);
+        flusher.join();
+        viewCountService.flushOnShutdown();
+
+        long expectedPerUniversity = (long) THREADS * VIEWS_PER_THREAD / UNIVERSITY_IDS.length;
+        for (long id : UNIVERSITY_IDS) {
+            assertEquals(expectedPerUniversity, database.get(id));
+        }
+        assertEquals(0, viewCountService.flush());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        when(universityRepository.addViewCounts(any(), any()))
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of(1L));
+
+        viewCountService.recordView(1L);
+        viewCountService.recordView(1L);
+
+        assertEquals(0, viewCountService.flush());
+        assertEquals(1, viewCountService.flush());
+        assertEquals(0, viewCountService.flush());
+    }
+
+    @Test
+    void unknownUniversitiesAreDropped() {
+        when(universityRepository.addViewCounts(any(), any())).thenReturn(List.of());
+
+        viewCountService.recordView(404L);
+
+        assertEquals(0, viewCountService.flush());
+        assertEquals(0, viewCountService.flush());
+    }
+}
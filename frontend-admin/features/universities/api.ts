@@ -1,6 +1,6 @@
-import { api, apiClient } from '@/lib/api-client';
+import { apiClient } from '@/lib/api-client';
 import {
-    CreateUniversityValues, PhotoUploadResponse,
+    CreateUniversityValues, PhotoUploadResponse, PhotoUploadUrlResponse,
     University,
     UniversityApiResponse,
     UniversityDetailResponse,
@@ -95,30 +95,35 @@ export async function uploadUniversityPhoto(
     file: File
 ): Promise<PhotoUploadResponse> {
     const MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
-    const ALLOWED_TYPES = ['image/jpeg', 'image/png', 'image/webp', 'image/gif'];
+    const ALLOWED_TYPES = ['image/jpeg', 'image/png', 'image/webp'];
 
     if (file.size > MAX_FILE_SIZE) {
         throw new Error('File size exceeds 5MB limit');
     }
 
     if (!ALLOWED_TYPES.includes(file.type)) {
-        throw new Error('Invalid file type. Allowed: JPEG, PNG, WebP, GIF');
+        throw new Error('Invalid file type. Allowed: JPEG, PNG, WebP');
     }
 
+    // the file goes straight to storage with a signed form, the backend only checks and records it
+    const upload = await apiClient.post<PhotoUploadUrlResponse>(
+        `/universities/${id}/photo/upload-url`,
+        { contentType: file.type, size: file.size },
+    );
+
     const formData = new FormData();
+    Object.entries(upload.fields).forEach(([name, value]) => formData.append(name, value));
     formData.append('file', file);
 
-    const response = await api.post<PhotoUploadResponse>(
-        `/universities/${id}/photo`,
-        formData,
-        {
-            headers: {
-                'Content-Type': 'multipart/form-data',
-            },
-        }
-    );
+    const storageResponse = await fetch(upload.uploadUrl, { method: 'POST', body: formData });
+    if (!storageResponse.ok) {
+        throw new Error('Failed to upload file to storage');
+    }
 
-    return response.data;
+    return apiClient.post<PhotoUploadResponse>(
+        `/universities/${id}/photo/confirm`,
+        { objectKey: upload.objectKey },
+    );
 }
 
 export async function deleteUniversityPhoto(id: string): Promise<void> {
@@ -82,6 +82,7 @@ export function UniversityEditForm({ university }: Props) {
                 ['university', String(university.id)],
                 updatedData,
             );
+            setFormData((prev) => ({ ...prev, version: updatedData.version }));
         },
         onError: (error: any) => {
             const message =
@@ -200,6 +201,7 @@ function initFormData(
         foundedYear: university.foundedYear,
         contactPhone: university.contactPhone || '',
         contactEmail: university.contactEmail || '',
+        version: university.version,
         translations: {
             ru: {
                 name: university.translations.ru?.name || '',
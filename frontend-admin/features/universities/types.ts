@@ -55,6 +55,13 @@ export interface PhotoUploadResponse {
     photoUrl: string;
 }
 
+export interface PhotoUploadUrlResponse {
+    uploadUrl: string;
+    fields: Record<string, string>;
+    objectKey: string;
+    expiresAt: string;
+}
+
 export interface UniversityApiTranslation {
     name: string;
     shortDescription: string | null;
@@ -260,6 +267,7 @@ export interface UniversityDetailResponse {
     progress: ProgressDto;
     createdAt: string;
     updatedAt: string;
+    version: number;
 }
 
 export interface UniversityListApiResponse {
@@ -298,4 +306,5 @@ export interface UpdateUniversityValues {
     admissionRule?: AdmissionRuleDto | null;
     tuitionDiscounts?: TuitionDiscountDto[];
     internationalSections?: InternationalSectionDto[];
+    version: number;
 }
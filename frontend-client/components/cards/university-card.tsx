@@ -47,7 +47,7 @@ export function UniversityCard({
                                }: UniversityCardProps) {
     const t = useTranslations('universities');
     const translation = getTranslation(university, locale);
-    const imageUrl = university.photoUrl || PLACEHOLDER_IMAGE;
+    const imageUrl = university.photoVariants?.['640'] || university.photoUrl || PLACEHOLDER_IMAGE;
 
     const compareIds = useCompareIds();
     const isHydrated = useCompareHydrated();
@@ -153,6 +153,32 @@ const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
 
 const MESSAGE_COLLAPSE_THRESHOLD = 300;
 
+// EventSource cannot POST, so the stream is read from fetch and split into events by hand
+async function readEventStream(
+    body: ReadableStream<Uint8Array>,
+    onEvent: (event: string, data: string) => void
+) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            let event = 'message';
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith('event:')) event = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5));
+            }
+            if (data.length > 0) onEvent(event, data.join('\n'));
+        }
+    }
+}
+
 export function AiChat() {
     const [isOpen, setIsOpen] = useState(false);
     const [messages, setMessages] = useState<Message[]>([WELCOME_MESSAGE]);
@@ -167,6 +193,7 @@ export function AiChat() {
     const [likedCards, setLikedCards] = useState<Set<string>>(new Set());
     const [expandedMessages, setExpandedMessages] = useState<Set<string>>(new Set());
     const messagesEndRef = useRef<HTMLDivElement>(null);
+    const streamAbortRef = useRef<AbortController | null>(null);
     const messagesContainerRef = useRef<HTMLDivElement>(null);
     const inputRef = useRef<HTMLTextAreaElement>(null);
 
@@ -209,7 +236,10 @@ export function AiChat() {
         });
     };
 
+    useEffect(() => () => streamAbortRef.current?.abort(), []);
+
     const resetChat = () => {
+        streamAbortRef.current?.abort();
         setMessages([WELCOME_MESSAGE]);
         setInput('');
         setSessionContext(null);
@@ -231,6 +261,9 @@ export function AiChat() {
         interactiveAnswer?: Record<string, unknown>
     ) => {
         setIsLoading(true);
+        const abortController = new AbortController();
+        streamAbortRef.current = abortController;
+        const assistantId = (Date.now() + 1).toString();
 
         try {
             const chatHistory = messages
@@ -256,37 +289,63 @@ export function AiChat() {
                 requestBody.sessionContext = sessionContext;
             }
 
-            const response = await fetch(`${API_BASE_URL}/api/v1/ai/chat`, {
+            const response = await fetch(`${API_BASE_URL}/api/v1/ai/chat/stream`, {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    Accept: 'text/event-stream',
                 },
                 body: JSON.stringify(requestBody),
+                signal: abortController.signal,
             });
 
-            if (!response.ok) {
+            if (!response.ok || !response.body) {
                 throw new Error('Failed to get response');
             }
 
-            const data = await response.json();
-
-            const assistantMessage: Message = {
-                id: (Date.now() + 1).toString(),
-                role: 'assistant',
-                content: data.message,
-                timestamp: new Date(),
-                interactive: data.interactive,
-                sessionContext: data.sessionContext,
-            };
+            setMessages((prev) => [
+                ...prev,
+                { id: assistantId, role: 'assistant', content: '', timestamp: new Date() },
+            ]);
+
+            // assigned from the callback, so kept in an object TypeScript does not narrow to null
+            const result: {
+                data: { message: string; interactive?: InteractiveElement; sessionContext?: SessionContext } | null;
+                error: string | null;
+            } = { data: null, error: null };
+            await readEventStream(response.body, (event, payload) => {
+                if (event === 'delta') {
+                    const { content: delta } = JSON.parse(payload);
+                    setMessages((prev) =>
+                        prev.map((m) => (m.id === assistantId ? { ...m, content: m.content + delta } : m))
+                    );
+                } else if (event === 'done') {
+                    result.data = JSON.parse(payload);
+                } else if (event === 'error') {
+                    result.error = JSON.parse(payload).message;
+                }
+            });
 
-            setMessages((prev) => [...prev, assistantMessage]);
+            if (!result.data) {
+                throw new Error(result.error ?? 'Stream ended without an answer');
+            }
+            const { message, interactive, sessionContext: nextContext } = result.data;
+
+            setMessages((prev) =>
+                prev.map((m) =>
+                    m.id === assistantId
+                        ? { ...m, content: message, interactive, sessionContext: nextContext }
+                        : m
+                )
+            );
 
-            if (data.sessionContext) {
-                setSessionContext(data.sessionContext);
+            if (nextContext) {
+                setSessionContext(nextContext);
             }
 
             resetInteractiveState();
         } catch (error) {
+            if (abortController.signal.aborted) return;
             console.error('Chat error:', error);
             const errorMessage: Message = {
                 id: (Date.now() + 1).toString(),
@@ -294,9 +353,12 @@ export function AiChat() {
                 content: '😔 Извините, произошла ошибка. Попробуйте ещё раз.',
                 timestamp: new Date(),
             };
-            setMessages((prev) => [...prev, errorMessage]);
+            setMessages((prev) => [...prev.filter((m) => m.id !== assistantId || m.content), errorMessage]);
         } finally {
-            setIsLoading(false);
+            if (streamAbortRef.current === abortController) {
+                streamAbortRef.current = null;
+                setIsLoading(false);
+            }
         }
     };
 
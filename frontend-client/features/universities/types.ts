@@ -10,6 +10,7 @@ export interface UniversityResponse {
     id: number;
     slug: string;
     photoUrl: string | null;
+    photoVariants?: Record<string, string>;
     websiteUrl: string | null;
     virtualTourUrl: string | null;
     foundedYear: number | null;